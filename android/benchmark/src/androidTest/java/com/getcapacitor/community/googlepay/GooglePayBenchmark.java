@@ -0,0 +1,101 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.getcapacitor.JSObject;
+import com.google.android.gms.tapandpay.TapAndPay;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * The plugin's per-call CPU work without a Bridge or Google Pay: token payload encoding, state and network
+ * lookups and UserAddress assembly.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GooglePayBenchmark {
+
+    private static final String[] TSP_NAMES = { "VISA", "MASTERCARD", "AMEX", "DISCOVER", "UNKNOWN" };
+
+    @Rule
+    public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    // Results land here so the measured work cannot be optimized away
+    private Object sink;
+
+    @Test
+    public void encodeTokenIds_100() {
+        List<WalletToken> tokens = tokens(100);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink = GooglePay.encodeTokens(tokens, false);
+        }
+    }
+
+    @Test
+    public void encodeTokensDetailed_100() {
+        List<WalletToken> tokens = tokens(100);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink = GooglePay.encodeTokens(tokens, true);
+        }
+    }
+
+    @Test
+    public void tokenStatusReferenceGetName() {
+        BenchmarkState state = benchmarkRule.getState();
+        int referenceId = 0;
+        while (state.keepRunning()) {
+            sink = GooglePay.TokenStatusReference.getName(referenceId++ % 8 - 1);
+        }
+    }
+
+    @Test
+    public void cardNetworkFromName() {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            sink = CardNetwork.fromName(TSP_NAMES[i++ % TSP_NAMES.length]);
+        }
+    }
+
+    @Test
+    public void buildUserAddress() {
+        JSObject address = new JSObject();
+        address.put("name", "Jane Doe");
+        address.put("address1", "1 Main Street");
+        address.put("address2", "Apt 2");
+        address.put("locality", "Springfield");
+        address.put("administrativeArea", "IL");
+        address.put("countryCode", "US");
+        address.put("postalCode", "62701");
+        address.put("phoneNumber", "5555550100");
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink = GooglePay.buildUserAddress(address);
+        }
+    }
+
+    private static List<WalletToken> tokens(int count) {
+        List<WalletToken> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean visa = i % 2 == 0;
+            tokens.add(
+                new WalletToken(
+                    "token-reference-" + i,
+                    "Issuer",
+                    String.format(Locale.ROOT, "%04d", i),
+                    visa ? TapAndPay.CARD_NETWORK_VISA : TapAndPay.CARD_NETWORK_MASTERCARD,
+                    visa ? TapAndPay.TOKEN_PROVIDER_VISA : TapAndPay.TOKEN_PROVIDER_MASTERCARD,
+                    TapAndPay.TOKEN_STATE_ACTIVE,
+                    i == 0
+                )
+            );
+        }
+        return tokens;
+    }
+}
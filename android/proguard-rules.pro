@@ -19,3 +19,14 @@
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
 #-renamesourcefileattribute SourceFile
+
+# Strip plugin logging from minified app builds, together with the argument
+# formatting and redaction that only exist to feed it.
+-assumenosideeffects class com.getcapacitor.community.googlepay.PluginLog {
+    static boolean isLoggable(int);
+    static boolean isDebugEnabled();
+    static void d(...);
+    static void i(...);
+    static void w(...);
+    static java.lang.String redact(java.lang.String);
+}
@@ -0,0 +1,162 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import com.google.android.gms.common.api.ApiException;
+import com.google.android.gms.common.api.CommonStatusCodes;
+import com.google.android.gms.common.api.Status;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs TapAndPay queries with a per-operation deadline and retries transient failures with full-jitter
+ * exponential backoff, behind a CircuitBreaker. Each attempt starts a fresh Task from the factory.
+ * The deadline covers the whole call including retries, so a hung attempt is never retried into another one.
+ */
+class CallGuard {
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final CircuitBreaker breaker;
+    private final PluginMetrics metrics;
+    private final long defaultTimeoutMs;
+    private final Map<String, Long> timeouts = new HashMap<>();
+    private final int retries;
+    private final long retryBaseDelayMs;
+
+    CallGuard(
+        ScheduledExecutorService scheduler,
+        Executor executor,
+        CircuitBreaker breaker,
+        PluginMetrics metrics,
+        long defaultTimeoutMs,
+        int retries,
+        long retryBaseDelayMs
+    ) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.breaker = breaker;
+        this.metrics = metrics;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.retries = Math.max(0, retries);
+        this.retryBaseDelayMs = Math.max(1, retryBaseDelayMs);
+    }
+
+    /**
+     * Overrides the deadline of one operation, 0 means no deadline.
+     */
+    void setTimeout(String operation, long timeoutMs) {
+        timeouts.put(operation, timeoutMs);
+    }
+
+    CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    <T> Task<T> call(String operation, SingleFlight.TaskFactory<T> factory) {
+        if (!breaker.allow()) {
+            metrics.increment(operation + ".rejectedOpen");
+            return Tasks.forException(breaker.openException());
+        }
+        TaskCompletionSource<T> result = new TaskCompletionSource<>();
+        armDeadline(operation, result);
+        attempt(operation, factory, result, 0);
+        return result.getTask();
+    }
+
+    static boolean isTransient(@Nullable Exception exception) {
+        if (!(exception instanceof ApiException apiException)) {
+            return false;
+        }
+        return switch (apiException.getStatusCode()) {
+            case CommonStatusCodes.NETWORK_ERROR,
+                CommonStatusCodes.INTERNAL_ERROR,
+                CommonStatusCodes.INTERRUPTED,
+                CommonStatusCodes.TIMEOUT,
+                CommonStatusCodes.API_NOT_CONNECTED -> true;
+            default -> false;
+        };
+    }
+
+    private <T> void attempt(String operation, SingleFlight.TaskFactory<T> factory, TaskCompletionSource<T> result, int attempt) {
+        if (result.getTask().isComplete()) {
+            // The deadline passed during the backoff
+            return;
+        }
+        Task<T> task;
+        try {
+            task = factory.start();
+        } catch (Exception e) {
+            task = Tasks.forException(e);
+        }
+        task.addOnCompleteListener(
+            executor,
+            completed -> {
+                if (completed.isSuccessful()) {
+                    breaker.onSuccess();
+                    result.trySetResult(completed.getResult());
+                    return;
+                }
+                Exception exception = completed.getException();
+                if (!isTransient(exception)) {
+                    // Google Pay answered, just not with a result
+                    breaker.onSuccess();
+                    result.trySetException(exception != null ? exception : new CancellationException(operation));
+                    return;
+                }
+                if (result.getTask().isComplete()) {
+                    // Already failed with the deadline, which counted for the breaker
+                    return;
+                }
+                if (attempt < retries && breaker.allow()) {
+                    metrics.increment(operation + ".retry");
+                    scheduler.schedule(() -> attempt(operation, factory, result, attempt + 1), backoff(attempt), TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (result.trySetException(exception) && breaker.onFailure()) {
+                    metrics.increment("breaker.opened");
+                }
+            }
+        );
+    }
+
+    /**
+     * Fails the call with TIMEOUT once the deadline of its operation passed, whichever attempt is running.
+     */
+    private <T> void armDeadline(String operation, TaskCompletionSource<T> result) {
+        Long override = timeouts.get(operation);
+        long timeoutMs = override != null ? override : defaultTimeoutMs;
+        if (timeoutMs <= 0) {
+            return;
+        }
+        ScheduledFuture<?> timer = scheduler.schedule(
+            () -> {
+                if (result.trySetException(new ApiException(new Status(CommonStatusCodes.TIMEOUT, operation + " timed out")))) {
+                    metrics.increment(operation + ".timeout");
+                    if (breaker.onFailure()) {
+                        metrics.increment("breaker.opened");
+                    }
+                }
+            },
+            timeoutMs,
+            TimeUnit.MILLISECONDS
+        );
+        result.getTask().addOnCompleteListener(executor, completed -> timer.cancel(false));
+    }
+
+    /**
+     * Full jitter: a random delay up to base * 2^attempt.
+     */
+    private long backoff(int attempt) {
+        long cap = retryBaseDelayMs << Math.min(attempt, 10);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import com.google.android.gms.tapandpay.TapAndPay;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Card networks the plugin can provision, by the tsp name used on the JS side, with their TapAndPay network
+ * and token service provider. Lookups go through tables built once, so they never allocate.
+ */
+enum CardNetwork {
+    AMEX(TapAndPay.CARD_NETWORK_AMEX, TapAndPay.TOKEN_PROVIDER_AMEX),
+    DISCOVER(TapAndPay.CARD_NETWORK_DISCOVER, TapAndPay.TOKEN_PROVIDER_DISCOVER),
+    EFTPOS(TapAndPay.CARD_NETWORK_EFTPOS, TapAndPay.TOKEN_PROVIDER_EFTPOS),
+    ELO(TapAndPay.CARD_NETWORK_ELO, TapAndPay.TOKEN_PROVIDER_ELO),
+    INTERAC(TapAndPay.CARD_NETWORK_INTERAC, TapAndPay.TOKEN_PROVIDER_INTERAC),
+    JCB(TapAndPay.CARD_NETWORK_JCB, TapAndPay.TOKEN_PROVIDER_JCB),
+    // Maestro cards are tokenized by Mastercard
+    MAESTRO(TapAndPay.CARD_NETWORK_MAESTRO, TapAndPay.TOKEN_PROVIDER_MASTERCARD),
+    MASTERCARD(TapAndPay.CARD_NETWORK_MASTERCARD, TapAndPay.TOKEN_PROVIDER_MASTERCARD),
+    MIR(TapAndPay.CARD_NETWORK_MIR, TapAndPay.TOKEN_PROVIDER_MIR),
+    VISA(TapAndPay.CARD_NETWORK_VISA, TapAndPay.TOKEN_PROVIDER_VISA);
+
+    /**
+     * Thrown for tsp names outside the registry, so batch calls can tell it apart from missing data.
+     */
+    static final class UnsupportedException extends IllegalArgumentException {
+
+        UnsupportedException(String tsp) {
+            super("Unsupported tsp " + tsp);
+        }
+    }
+
+    private static final Map<String, CardNetwork> BY_NAME = new HashMap<>();
+
+    static {
+        for (CardNetwork network : values()) {
+            BY_NAME.put(network.name(), network);
+        }
+    }
+
+    final int network;
+    final int tokenServiceProvider;
+
+    CardNetwork(int network, int tokenServiceProvider) {
+        this.network = network;
+        this.tokenServiceProvider = tokenServiceProvider;
+    }
+
+    @Nullable
+    static CardNetwork fromName(@Nullable String tsp) {
+        return tsp != null ? BY_NAME.get(tsp) : null;
+    }
+}
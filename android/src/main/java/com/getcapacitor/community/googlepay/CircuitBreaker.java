@@ -0,0 +1,112 @@
+package com.getcapacitor.community.googlepay;
+
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.GoogleApiAvailability;
+import com.google.android.gms.common.api.ApiException;
+import com.google.android.gms.common.api.CommonStatusCodes;
+import com.google.android.gms.common.api.Status;
+
+/**
+ * Opens after a run of consecutive transient failures and fails calls fast until the cooldown passes.
+ * Then a single probe call goes out, its outcome closes or reopens the breaker.
+ * Play services availability is checked once per opening, so the error says whether it is updating or missing.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    @Nullable
+    private final Context context;
+
+    private final int threshold;
+    private final long cooldownMs;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private long probeStartedAt;
+    private long opened;
+    private int availability = ConnectionResult.SUCCESS;
+
+    /**
+     * @param context used for the availability check, null when the backend does not depend on Play services
+     * @param threshold consecutive failures that open the breaker, 0 disables it
+     */
+    CircuitBreaker(@Nullable Context context, int threshold, long cooldownMs) {
+        this.context = context != null ? context.getApplicationContext() : null;
+        this.threshold = threshold;
+        this.cooldownMs = cooldownMs;
+    }
+
+    /**
+     * Whether a call may go out. Once the cooldown passed, an open breaker lets exactly one probe through,
+     * and another one only if the first has not reported back within a further cooldown.
+     */
+    synchronized boolean allow() {
+        long now = SystemClock.elapsedRealtime();
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (now - openedAt < cooldownMs) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                probeStartedAt = now;
+                yield true;
+            }
+            case HALF_OPEN -> {
+                if (now - probeStartedAt < cooldownMs) {
+                    yield false;
+                }
+                probeStartedAt = now;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Returns true when this failure opened the breaker.
+     */
+    synchronized boolean onFailure() {
+        if (threshold <= 0) {
+            return false;
+        }
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= threshold)) {
+            state = State.OPEN;
+            openedAt = SystemClock.elapsedRealtime();
+            opened++;
+            availability = context != null ? GoogleApiAvailability.getInstance().isGooglePlayServicesAvailable(context) : ConnectionResult.SUCCESS;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized ApiException openException() {
+        String message = availability == ConnectionResult.SUCCESS
+            ? "Google Pay is not responding, retry later"
+            : "Google Play services unavailable: " + GoogleApiAvailability.getInstance().getErrorString(availability);
+        return new ApiException(new Status(CommonStatusCodes.API_NOT_CONNECTED, message));
+    }
+
+    synchronized JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("state", state.name());
+        result.put("consecutiveFailures", failures);
+        result.put("opened", opened);
+        result.put("availability", availability);
+        return result;
+    }
+}
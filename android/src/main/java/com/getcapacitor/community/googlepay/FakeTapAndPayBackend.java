@@ -0,0 +1,315 @@
+package com.getcapacitor.community.googlepay;
+
+import static com.google.android.gms.tapandpay.TapAndPayStatusCodes.TAP_AND_PAY_TOKEN_NOT_FOUND;
+
+import android.app.Activity;
+import android.content.Intent;
+import androidx.annotation.Nullable;
+import com.google.android.gms.common.api.ApiException;
+import com.google.android.gms.common.api.Status;
+import com.google.android.gms.tapandpay.TapAndPay;
+import com.google.android.gms.tapandpay.issuer.UserAddress;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process TapAndPayBackend for load tests and devices without a wallet. Every call completes after a fixed
+ * latency and failures are injected at an exact rate (every n-th call), so runs are reproducible.
+ * Activity flows never show UI, they mutate the token population and report straight back to the plugin.
+ */
+class FakeTapAndPayBackend implements TapAndPayBackend {
+
+    interface ResultSink {
+        void onActivityResult(int requestCode, int resultCode, @Nullable Intent data);
+    }
+
+    static final String ENVIRONMENT = "SANDBOX";
+    static final String WALLET_ID = "fake-wallet";
+    static final String HARDWARE_ID = "fake-hardware-id";
+
+    private final ScheduledExecutorService scheduler;
+    private final ResultSink resultSink;
+    private final long latencyMs;
+    private final int failurePercent;
+    private final int failureStatus;
+    private final Map<String, WalletToken> tokens = new LinkedHashMap<>();
+    private final List<DataChangedListener> listeners = new CopyOnWriteArrayList<>();
+    private long calls;
+    private int nextToken;
+
+    /**
+     * @param latencyMs delay of every call and activity flow, a negative value never completes them
+     * @param failurePercent share of calls (0-100) that fail with an ApiException or a canceled activity
+     * @param failureStatus status code of the injected ApiException. CallGuard retries transient codes such as
+     *     INTERNAL_ERROR, so those failures only reach callers, and count for the breaker, once retries run out
+     * @param tokenCount size of the initial token population, alternating Visa and Mastercard, every tenth one pending
+     */
+    FakeTapAndPayBackend(
+        ScheduledExecutorService scheduler,
+        ResultSink resultSink,
+        long latencyMs,
+        int failurePercent,
+        int failureStatus,
+        int tokenCount
+    ) {
+        this.scheduler = scheduler;
+        this.resultSink = resultSink;
+        this.latencyMs = latencyMs;
+        this.failurePercent = Math.max(0, Math.min(100, failurePercent));
+        this.failureStatus = failureStatus;
+        for (int i = 0; i < tokenCount; i++) {
+            boolean visa = i % 2 == 0;
+            addToken(
+                visa ? TapAndPay.CARD_NETWORK_VISA : TapAndPay.CARD_NETWORK_MASTERCARD,
+                visa ? TapAndPay.TOKEN_PROVIDER_VISA : TapAndPay.TOKEN_PROVIDER_MASTERCARD,
+                String.format(Locale.ROOT, "%04d", i % 10000),
+                "Fake Issuer",
+                i % 10 == 9 ? TapAndPay.TOKEN_STATE_PENDING : TapAndPay.TOKEN_STATE_ACTIVE
+            );
+        }
+    }
+
+    @Override
+    public Task<String> getEnvironment() {
+        return respond(() -> ENVIRONMENT);
+    }
+
+    @Override
+    public Task<String> getActiveWalletId() {
+        return respond(() -> WALLET_ID);
+    }
+
+    @Override
+    public Task<String> getStableHardwareId() {
+        return respond(() -> HARDWARE_ID);
+    }
+
+    @Override
+    public Task<Integer> getTokenState(int tsp, String tokenReferenceId) {
+        return respond(() -> {
+            synchronized (this) {
+                WalletToken token = tokens.get(tokenReferenceId);
+                if (token == null || token.tokenServiceProvider != tsp) {
+                    throw new ApiException(new Status(TAP_AND_PAY_TOKEN_NOT_FOUND));
+                }
+                return token.state;
+            }
+        });
+    }
+
+    @Override
+    public Task<List<WalletToken>> listTokens() {
+        return respond(() -> {
+            synchronized (this) {
+                return new ArrayList<>(tokens.values());
+            }
+        });
+    }
+
+    @Override
+    public Task<Boolean> isTokenized(int network, int tsp, String lastDigits) {
+        return respond(() -> {
+            synchronized (this) {
+                for (WalletToken token : tokens.values()) {
+                    if (
+                        token.network == network &&
+                        token.tokenServiceProvider == tsp &&
+                        token.lastDigits.equals(lastDigits) &&
+                        token.state != TapAndPay.TOKEN_STATE_UNTOKENIZED
+                    ) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void registerDataChangedListener(DataChangedListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+
+    @Override
+    public void createWallet(Activity activity, int requestCode) {
+        finishActivity(requestCode, () -> null);
+    }
+
+    @Override
+    public void pushTokenize(
+        Activity activity,
+        byte[] opc,
+        int network,
+        int tsp,
+        String displayName,
+        String lastDigits,
+        UserAddress address,
+        int requestCode
+    ) {
+        finishActivity(
+            requestCode,
+            () -> {
+                String tokenReferenceId;
+                synchronized (this) {
+                    tokenReferenceId = addToken(network, tsp, lastDigits, displayName, TapAndPay.TOKEN_STATE_ACTIVE);
+                }
+                notifyDataChanged();
+                return new Intent().putExtra(TapAndPay.EXTRA_ISSUER_TOKEN_ID, tokenReferenceId);
+            }
+        );
+    }
+
+    @Override
+    public void tokenize(Activity activity, String tokenReferenceId, int tsp, String displayName, int network, int requestCode) {
+        finishActivity(
+            requestCode,
+            () -> {
+                updateToken(tokenReferenceId, tsp, TapAndPay.TOKEN_STATE_ACTIVE);
+                return null;
+            }
+        );
+    }
+
+    @Override
+    public void requestSelectToken(Activity activity, String tokenReferenceId, int tsp, int requestCode) {
+        finishActivity(
+            requestCode,
+            () -> {
+                synchronized (this) {
+                    WalletToken selected = tokens.get(tokenReferenceId);
+                    if (selected == null || selected.tokenServiceProvider != tsp) {
+                        throw new ApiException(new Status(TAP_AND_PAY_TOKEN_NOT_FOUND));
+                    }
+                    for (Map.Entry<String, WalletToken> entry : tokens.entrySet()) {
+                        WalletToken token = entry.getValue();
+                        boolean isDefault = token == selected;
+                        if (token.isDefault != isDefault) {
+                            entry.setValue(
+                                new WalletToken(
+                                    token.tokenReferenceId,
+                                    token.issuerName,
+                                    token.lastDigits,
+                                    token.network,
+                                    token.tokenServiceProvider,
+                                    token.state,
+                                    isDefault
+                                )
+                            );
+                        }
+                    }
+                }
+                notifyDataChanged();
+                return null;
+            }
+        );
+    }
+
+    @Override
+    public void requestDeleteToken(Activity activity, String tokenReferenceId, int tsp, int requestCode) {
+        finishActivity(
+            requestCode,
+            () -> {
+                synchronized (this) {
+                    WalletToken token = tokens.get(tokenReferenceId);
+                    if (token == null || token.tokenServiceProvider != tsp) {
+                        throw new ApiException(new Status(TAP_AND_PAY_TOKEN_NOT_FOUND));
+                    }
+                    tokens.remove(tokenReferenceId);
+                }
+                notifyDataChanged();
+                return null;
+            }
+        );
+    }
+
+    private String addToken(int network, int tsp, String lastDigits, String issuerName, int state) {
+        String tokenReferenceId = "fake-token-" + nextToken++;
+        tokens.put(tokenReferenceId, new WalletToken(tokenReferenceId, issuerName, lastDigits, network, tsp, state, tokens.isEmpty()));
+        return tokenReferenceId;
+    }
+
+    private void updateToken(String tokenReferenceId, int tsp, int state) throws ApiException {
+        synchronized (this) {
+            WalletToken token = tokens.get(tokenReferenceId);
+            if (token == null || token.tokenServiceProvider != tsp) {
+                throw new ApiException(new Status(TAP_AND_PAY_TOKEN_NOT_FOUND));
+            }
+            tokens.put(tokenReferenceId, token.withState(state));
+        }
+        notifyDataChanged();
+    }
+
+    private void notifyDataChanged() {
+        for (DataChangedListener listener : listeners) {
+            listener.onDataChanged();
+        }
+    }
+
+    /**
+     * Fails every call where the running failure count crosses a whole number, e.g. every 4th call at 25 percent.
+     */
+    private synchronized boolean nextFails() {
+        long call = calls++;
+        return (call + 1) * failurePercent / 100 > call * failurePercent / 100;
+    }
+
+    private <T> Task<T> respond(Callable<T> result) {
+        TaskCompletionSource<T> source = new TaskCompletionSource<>();
+        boolean fails = nextFails();
+        after(() -> {
+            if (fails) {
+                source.setException(new ApiException(new Status(failureStatus, "Injected failure")));
+                return;
+            }
+            try {
+                source.setResult(result.call());
+            } catch (Exception e) {
+                source.setException(e);
+            }
+        });
+        return source.getTask();
+    }
+
+    private void finishActivity(int requestCode, Callable<Intent> result) {
+        boolean fails = nextFails();
+        after(() -> {
+            if (fails) {
+                resultSink.onActivityResult(requestCode, Activity.RESULT_CANCELED, null);
+                return;
+            }
+            try {
+                resultSink.onActivityResult(requestCode, Activity.RESULT_OK, result.call());
+            } catch (ApiException e) {
+                resultSink.onActivityResult(requestCode, GooglePay.RESULT_INVALID_TOKEN, null);
+            } catch (Exception e) {
+                resultSink.onActivityResult(requestCode, Activity.RESULT_CANCELED, null);
+            }
+        });
+    }
+
+    private void after(Runnable runnable) {
+        if (latencyMs < 0) {
+            // A hung Google Pay, for deadline tests
+            return;
+        }
+        if (latencyMs > 0) {
+            scheduler.schedule(runnable, latencyMs, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(runnable);
+        }
+    }
+}
@@ -5,12 +5,8 @@ import static com.google.android.gms.tapandpay.TapAndPayStatusCodes.TAP_AND_PAY_
 
 import android.app.Activity;
 import android.content.ComponentName;
-import android.content.Context;
 import android.content.Intent;
-import android.nfc.NfcAdapter;
-import android.nfc.NfcManager;
 import android.nfc.cardemulation.CardEmulation;
-import android.util.Log;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
@@ -19,15 +15,30 @@ import com.getcapacitor.Bridge;
 import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.PluginCall;
-import com.google.android.gms.common.GoogleApiAvailability;
+import com.getcapacitor.PluginConfig;
 import com.google.android.gms.common.api.ApiException;
+import com.google.android.gms.common.api.CommonStatusCodes;
 import com.google.android.gms.tapandpay.TapAndPay;
-import com.google.android.gms.tapandpay.TapAndPayClient;
-import com.google.android.gms.tapandpay.issuer.IsTokenizedRequest;
-import com.google.android.gms.tapandpay.issuer.PushTokenizeRequest;
-import com.google.android.gms.tapandpay.issuer.TokenInfo;
 import com.google.android.gms.tapandpay.issuer.UserAddress;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 public class GooglePay {
@@ -39,14 +50,76 @@ public class GooglePay {
         void onDateChanged(String event, JSObject result, Boolean state);
     }
 
-    private final TapAndPayClient tapAndPay;
-    private static final String TAG = "GooglePayPlugin";
+    /**
+     * Handles the activity result of one request code for its saved call.
+     */
+    interface ActivityResultHandler {
+        void onActivityResult(PluginCall call, int resultCode, @Nullable Intent data);
+    }
+
+    private final TapAndPayBackend tapAndPay;
+    private static final int DEFAULT_TOKEN_CACHE_TTL = 30000;
+    private static final int DEFAULT_TOKEN_CACHE_SIZE = 256;
+    private static final int DEFAULT_RESULT_THREADS = 2;
+    private static final int DEFAULT_DATA_CHANGE_DEBOUNCE = 500;
+    private static final int DEFAULT_WATCH_INITIAL_INTERVAL = 2000;
+    private static final int DEFAULT_WATCH_MAX_INTERVAL = 60000;
+    private static final int DEFAULT_TRACE_BUFFER_SIZE = 256;
+    private static final int DEFAULT_FAKE_TOKEN_COUNT = 8;
+    // Not transient, so every injected failure reaches its caller instead of being retried away
+    private static final int DEFAULT_FAKE_FAILURE_STATUS = CommonStatusCodes.ERROR;
+    private static final int DEFAULT_CALL_TIMEOUT = 10000;
+    private static final int DEFAULT_CALL_RETRIES = 2;
+    private static final int DEFAULT_RETRY_BASE_DELAY = 250;
+    private static final int DEFAULT_BREAKER_THRESHOLD = 5;
+    private static final int DEFAULT_BREAKER_COOLDOWN = 30000;
+    private static final int DEFAULT_MAX_CONCURRENT_CALLS = 4;
+    private static final int DEFAULT_MAX_BACKGROUND_HOLD = 120000;
     private final Bridge bridge;
-    public String callBackId;
-    public String dataChangeCallBackId;
+    private final ExecutorService resultExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final TokenStatusCache tokenStatusCache;
+    private final TokenizedIndex tokenizedIndex;
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final PluginMetrics metrics = new PluginMetrics();
+    private final TraceBuffer trace;
+    private final CallGuard callGuard;
+    private final IpcScheduler ipc;
+    private final AtomicBoolean reconcilingWalletState = new AtomicBoolean();
+    private final TokenStateTracker tokenStateTracker = new TokenStateTracker();
+    private final long dataChangeDebounce;
+    private final TokenStatusWatcher tokenStatusWatcher;
+    private final NfcStateMonitor nfcStateMonitor;
+    private volatile boolean dataChangeSubscribed;
+
+    @Nullable
+    private ScheduledFuture<?> pendingDataChange;
+
+    @Nullable
+    private final WalletStateStore walletStateStore;
+    private final PendingCallRegistry pendingCalls = new PendingCallRegistry();
+    private final Map<Integer, ActivityResultHandler> resultHandlers = new HashMap<>();
+    private final ActivityResultLauncher<Intent> defaultNfcLauncher;
+    private final ProvisionBatchStore provisionBatchStore;
+    // Opaque payment cards of single pushProvision launches by launch token, wiped once Google Pay answers
+    private final Map<Long, byte[]> pendingOpcs = new HashMap<>();
+    // Opaque payment cards of the batch by opcRef, never persisted and wiped once used
+    private final Map<String, byte[]> batchOpcs = new HashMap<>();
+
+    @Nullable
+    private volatile String batchCallbackId;
+
+    private volatile boolean batchLaunched;
+    private long batchLaunchedAt;
     protected static final int REQUEST_CODE_PUSH_TOKENIZE = 3;
     protected static final int REQUEST_CODE_CREATE_WALLET = 4;
     protected static final int REQUEST_CODE_ACTION_TOKEN = 5;
+    protected static final int REQUEST_CODE_SELECT_TOKEN = 6;
+    protected static final int REQUEST_CODE_DELETE_TOKEN = 7;
+    // Not a platform request code, results arrive through defaultNfcLauncher
+    protected static final int REQUEST_CODE_DEFAULT_NFC = 8;
+    protected static final int REQUEST_CODE_PUSH_TOKENIZE_BATCH = 9;
+    private static final String[] BATCH_CARD_FIELDS = { "opcRef", "opc", "tsp", "clientName", "lastDigits", "address" };
     protected static final int RESULT_CANCELED = 0;
     protected static final int RESULT_OK = -1;
     protected static final int RESULT_INVALID_TOKEN = 15003;
@@ -59,7 +132,10 @@ public class GooglePay {
         IS_TOKENIZED_ERROR(-5),
         ACTION_TOKEN_ERROR(-6),
         INVALID_TOKEN(-7),
-        SET_DEFAULT_PAYMENTS_ERROR(-9);
+        SET_DEFAULT_PAYMENTS_ERROR(-9),
+        UNSUPPORTED_NETWORK_ERROR(-10),
+        PROVISION_BATCH_PENDING(-11),
+        CALL_CANCELED(-12);
 
         private final Integer code;
 
@@ -83,13 +159,24 @@ public class GooglePay {
 
         public final int referenceId;
 
-        public static TokenStatusReference getName(int referenceId) {
+        // Indexed by referenceId - MIN_REFERENCE_ID, so lookups neither scan nor copy values()
+        private static final int MIN_REFERENCE_ID = -1;
+        private static final TokenStatusReference[] BY_REFERENCE_ID;
+
+        static {
+            int max = MIN_REFERENCE_ID;
             for (TokenStatusReference reference : values()) {
-                if (reference.referenceId == referenceId) {
-                    return reference;
-                }
+                max = Math.max(max, reference.referenceId);
             }
-            return null;
+            BY_REFERENCE_ID = new TokenStatusReference[max - MIN_REFERENCE_ID + 1];
+            for (TokenStatusReference reference : values()) {
+                BY_REFERENCE_ID[reference.referenceId - MIN_REFERENCE_ID] = reference;
+            }
+        }
+
+        public static TokenStatusReference getName(int referenceId) {
+            int index = referenceId - MIN_REFERENCE_ID;
+            return index >= 0 && index < BY_REFERENCE_ID.length ? BY_REFERENCE_ID[index] : null;
         }
 
         TokenStatusReference(int referenceId) {
@@ -98,88 +185,404 @@ public class GooglePay {
     }
 
     @Nullable
-    private DateChangeListener dataChangeListener;
+    private volatile DateChangeListener dataChangeListener;
 
     public void setDataChangeListener(@Nullable DateChangeListener listener) {
         this.dataChangeListener = listener;
     }
 
-    public GooglePay(@NonNull Bridge bridge) {
-        this.tapAndPay = TapAndPay.getClient(bridge.getActivity());
+    public GooglePay(@NonNull Bridge bridge, @NonNull PluginConfig config) {
         this.bridge = bridge;
+        // Both pools discard work once shut down in onDestroy, so late Task callbacks are dropped instead of throwing
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+                Thread thread = new Thread(runnable, "GooglePayScheduler");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+        // Debounced and rescheduled work is canceled often, don't keep it queued until its delay passes
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduler;
+        // Task continuations and result encoding stay off the main thread, only the bridge resolve goes back to it
+        int resultThreads = Math.max(1, config.getInt("resultThreads", DEFAULT_RESULT_THREADS));
+        ThreadPoolExecutor resultExecutor = new ThreadPoolExecutor(
+            resultThreads,
+            resultThreads,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "GooglePayResults");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+        resultExecutor.allowCoreThreadTimeOut(true);
+        this.resultExecutor = resultExecutor;
+        boolean fakeBackend = "fake".equals(config.getString("backend", "playServices"));
+        if (fakeBackend) {
+            // Load tests and wallet-less devices, activity results are delivered like real ones on the main thread
+            this.tapAndPay =
+                new FakeTapAndPayBackend(
+                    this.scheduler,
+                    (requestCode, resultCode, data) -> bridge.executeOnMainThread(() -> onActivityResult(requestCode, resultCode, data)),
+                    config.getInt("fakeLatency", 0),
+                    config.getInt("fakeFailurePercent", 0),
+                    config.getInt("fakeFailureStatus", DEFAULT_FAKE_FAILURE_STATUS),
+                    config.getInt("fakeTokenCount", DEFAULT_FAKE_TOKEN_COUNT)
+                );
+        } else {
+            this.tapAndPay = new PlayServicesTapAndPayBackend(bridge.getContext(), resultExecutor);
+        }
+        int callTimeout = config.getInt("callTimeout", DEFAULT_CALL_TIMEOUT);
+        this.callGuard =
+            new CallGuard(
+                this.scheduler,
+                this.resultExecutor,
+                new CircuitBreaker(
+                    fakeBackend ? null : bridge.getContext(),
+                    config.getInt("breakerThreshold", DEFAULT_BREAKER_THRESHOLD),
+                    config.getInt("breakerCooldown", DEFAULT_BREAKER_COOLDOWN)
+                ),
+                this.metrics,
+                callTimeout,
+                config.getInt("callRetries", DEFAULT_CALL_RETRIES),
+                config.getInt("retryBaseDelay", DEFAULT_RETRY_BASE_DELAY)
+            );
+        // Listing a large wallet takes longer than the single-value queries
+        this.callGuard.setTimeout("listTokens", callTimeout * 2L);
+        JSONObject callTimeouts = config.getObject("callTimeouts");
+        if (callTimeouts != null) {
+            Iterator<String> operations = callTimeouts.keys();
+            while (operations.hasNext()) {
+                String operation = operations.next();
+                this.callGuard.setTimeout(operation, callTimeouts.optLong(operation, callTimeout));
+            }
+        }
+        this.ipc =
+            new IpcScheduler(
+                this.resultExecutor,
+                this.scheduler,
+                this.metrics,
+                config.getInt("maxConcurrentCalls", DEFAULT_MAX_CONCURRENT_CALLS),
+                config.getInt("maxBackgroundHold", DEFAULT_MAX_BACKGROUND_HOLD)
+            );
+        int tokenCacheTtl = config.getInt("tokenCacheTtl", DEFAULT_TOKEN_CACHE_TTL);
+        this.tokenStatusCache = new TokenStatusCache(tokenCacheTtl, config.getInt("tokenCacheSize", DEFAULT_TOKEN_CACHE_SIZE));
+        this.tokenizedIndex = new TokenizedIndex(tokenCacheTtl);
+        this.walletStateStore = config.getBoolean("persistWalletState", false) ? new WalletStateStore(bridge.getContext()) : null;
+        this.dataChangeDebounce = Math.max(0, config.getInt("dataChangeDebounce", DEFAULT_DATA_CHANGE_DEBOUNCE));
+        this.trace = new TraceBuffer(config.getInt("traceBufferSize", DEFAULT_TRACE_BUFFER_SIZE));
+        PluginLog.setLevel(config.getString("logLevel", "info"));
+        this.tokenStatusWatcher =
+            new TokenStatusWatcher(
+                this.scheduler,
+                this.resultExecutor,
+                new TokenStatusWatcher.StateFetcher() {
+                    @Override
+                    public Task<Integer> fetch(int tsp, String tokenReferenceId) {
+                        return fetchTokenState(tsp, tokenReferenceId, true, IpcScheduler.Priority.BACKGROUND);
+                    }
+
+                    @Override
+                    public void release(Task<Integer> fetch) {
+                        singleFlight.leave(fetch, ipc::cancel);
+                    }
+                },
+                this::onTokenStatusChanged,
+                config.getInt("watchInitialInterval", DEFAULT_WATCH_INITIAL_INTERVAL),
+                config.getInt("watchMaxInterval", DEFAULT_WATCH_MAX_INTERVAL)
+            );
+        this.nfcStateMonitor = new NfcStateMonitor(bridge.getContext(), this::onNfcStateChanged);
+        this.provisionBatchStore = new ProvisionBatchStore(bridge.getContext());
+        // The only native registration, JS subscriptions just switch event delivery on
+        this.tapAndPay.registerDataChangedListener(this::onWalletDataChanged);
+
+        this.resultHandlers.put(REQUEST_CODE_CREATE_WALLET, this::onCreateWalletResult);
+        this.resultHandlers.put(REQUEST_CODE_PUSH_TOKENIZE, this::onPushTokenizeResult);
+        this.resultHandlers.put(REQUEST_CODE_ACTION_TOKEN, this::onActionTokenResult);
+        this.resultHandlers.put(REQUEST_CODE_SELECT_TOKEN, this::onActionTokenResult);
+        this.resultHandlers.put(REQUEST_CODE_DELETE_TOKEN, this::onActionTokenResult);
+        this.resultHandlers.put(REQUEST_CODE_DEFAULT_NFC, this::onDefaultNfcResult);
+
+        // Registered once while the plugin loads, each launch is matched to its call through pendingCalls
+        this.defaultNfcLauncher =
+            bridge.registerForActivityResult(
+                new ActivityResultContracts.StartActivityForResult(),
+                result -> onActivityResult(REQUEST_CODE_DEFAULT_NFC, result.getResultCode(), result.getData())
+            );
+    }
+
+    private void onWalletDataChanged() {
+        this.trace.record("dataChanged", "callback");
+        this.tokenStatusCache.invalidate();
+        this.tokenizedIndex.invalidate();
+        if (this.walletStateStore != null) {
+            // The change may be an account switch, nothing is persisted until the active wallet is confirmed again
+            this.walletStateStore.forgetActiveWallet();
+        }
+        this.tokenStatusWatcher.wake();
+        if (!this.dataChangeSubscribed && !this.tokenizedIndex.wasBuilt()) {
+            return;
+        }
+        // A burst of callbacks collapses into one token refresh and one event
+        synchronized (this.scheduler) {
+            if (this.pendingDataChange != null) {
+                this.pendingDataChange.cancel(false);
+            }
+            this.pendingDataChange = this.scheduler.schedule(this::emitDataChange, this.dataChangeDebounce, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void emitDataChange() {
+        // Refreshing the tokens also keeps the isTokenized index warm
+        fetchTokens(true, IpcScheduler.Priority.BACKGROUND)
+            .addOnCompleteListener(this.resultExecutor, task -> {
+                JSObject result;
+                if (task.isSuccessful()) {
+                    // The baseline follows every refresh, also while nobody listens
+                    result = this.tokenStateTracker.diff(task.getResult());
+                } else {
+                    // The baseline stays, so the next successful refresh reports what this one missed
+                    Exception exception = task.getException();
+                    result = TokenStateTracker.unchanged();
+                    result.put("error", snapshotError(exception != null ? exception.getMessage() : "LIST_TOKEN_ERROR", "LIST_TOKEN_ERROR"));
+                }
+                DateChangeListener listener = this.dataChangeListener;
+                if (!this.dataChangeSubscribed || listener == null) {
+                    return;
+                }
+                result.put("value", "OK");
+                listener.onDateChanged("registerDataChangedListener", result, true);
+            });
+    }
+
+    private void onTokenStatusChanged(JSObject change) {
+        DateChangeListener listener = this.dataChangeListener;
+        if (listener != null) {
+            listener.onDateChanged("tokenStatusChanged", change, true);
+        }
+    }
+
+    private void onNfcStateChanged(JSObject state) {
+        DateChangeListener listener = this.dataChangeListener;
+        if (listener != null) {
+            listener.onDateChanged("nfcStateChanged", state, true);
+        }
+    }
+
+    public void onPause() {
+        this.tokenStatusWatcher.pause();
+    }
+
+    public void onResume() {
+        this.tokenStatusWatcher.resume();
+        // The default payment app can only change in system settings, i.e. while we are in the background
+        this.nfcStateMonitor.refresh();
+    }
+
+    /**
+     * Tears the instance down with its bridge. Continuations still waiting on Play services capture PluginCalls,
+     * the executors drop them on arrival so neither the calls nor the old Activity stay reachable.
+     */
+    public void onDestroy() {
+        this.dataChangeListener = null;
+        this.dataChangeSubscribed = false;
+        this.tapAndPay.close();
+        this.tokenStatusWatcher.clearAll();
+        this.ipc.cancelAll();
+        this.nfcStateMonitor.stop();
+        this.defaultNfcLauncher.unregister();
+        this.scheduler.shutdownNow();
+        this.resultExecutor.shutdownNow();
+        for (PendingCallRegistry.PendingCall pending : this.pendingCalls.clear()) {
+            this.bridge.releaseCall(pending.callbackId);
+        }
+        if (this.walletStateStore != null) {
+            this.walletStateStore.close();
+        }
+        // The persisted batch stays, resumeProvisionBatch picks it up in the next instance
+        this.provisionBatchStore.close();
+        wipeBatchOpcs();
+        synchronized (this.pendingOpcs) {
+            for (byte[] opc : this.pendingOpcs.values()) {
+                OpcCodec.wipe(opc);
+            }
+            this.pendingOpcs.clear();
+        }
+        String batchCallbackId = this.batchCallbackId;
+        if (batchCallbackId != null) {
+            this.batchCallbackId = null;
+            this.bridge.releaseCall(batchCallbackId);
+        }
     }
 
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
-        Log.i(TAG, "onActivityResult --- " + resultCode + " --- " + requestCode);
-        Log.i(TAG, "onActivityResultData --- " + data);
-        Log.i(TAG, "CallBackID --- " + callBackId);
+        PluginLog.i("onActivityResult requestCode={} resultCode={}", requestCode, resultCode);
+
+        if (requestCode != REQUEST_CODE_CREATE_WALLET && requestCode != REQUEST_CODE_DEFAULT_NFC) {
+            // The wallet may have changed behind our back
+            this.tokenStatusCache.invalidate();
+            this.tokenizedIndex.invalidate();
+        }
+
+        if (requestCode == REQUEST_CODE_PUSH_TOKENIZE_BATCH) {
+            // Not a saved call, the batch queue knows which card was launched even after a process restart
+            onBatchResult(resultCode, data);
+            return;
+        }
 
         // Get the previously saved call
-        PluginCall call = this.bridge.getSavedCall(callBackId);
+        PendingCallRegistry.PendingCall pending = this.pendingCalls.take(requestCode);
+        updateBackgroundHold();
+        if (pending == null) {
+            this.trace.record(activityName(requestCode), "orphanResult", requestCode, resultCode, 0, null, 0);
+            return;
+        }
+        wipePendingOpc(pending.token);
+        PluginLog.d("onActivityResult callbackId={} launch={}", pending.callbackId, pending.token);
+        this.metrics.record(activityName(requestCode) + ".activity", pending.launchedAt, resultCode == RESULT_OK);
+        if (this.trace.isEnabled()) {
+            this.trace.record(
+                    activityName(requestCode),
+                    "result",
+                    requestCode,
+                    resultCode,
+                    (PluginMetrics.now() - pending.launchedAt) / 1000,
+                    activityErrorCode(requestCode, resultCode),
+                    pending.token
+                );
+        }
+
+        PluginCall call = this.bridge.getSavedCall(pending.callbackId);
 
         if (call == null) {
             return;
         }
 
-        JSObject result = new JSObject();
+        ActivityResultHandler handler = this.resultHandlers.get(requestCode);
+        if (handler != null) {
+            handler.onActivityResult(call, resultCode, data);
+        } else {
+            call.resolve();
+        }
+        this.bridge.releaseCall(pending.callbackId);
+        call.setKeepAlive(false);
+    }
 
-        if (requestCode == REQUEST_CODE_CREATE_WALLET) {
-            if (resultCode == RESULT_CANCELED) {
-                // The user canceled the request.
-                call.reject("Google wallet create cancelled", ErrorCodeReference.CREATE_WALLET_CANCEL.getError());
-            } else if (resultCode == RESULT_OK) {
-                Log.i(TAG, "Google wallet created --- ");
-                result.put("isCreated", true);
-                call.resolve(result);
-            }
-        } else if (requestCode == REQUEST_CODE_PUSH_TOKENIZE) {
-            if (resultCode == RESULT_CANCELED) {
-                call.reject("PUSH_PROVISION_CANCEL", ErrorCodeReference.PUSH_PROVISION_CANCEL.getError());
-            } else if (resultCode == RESULT_OK) {
-                // The action succeeded.
-                String tokenId = data.getStringExtra(TapAndPay.EXTRA_ISSUER_TOKEN_ID);
-                result.put("tokenId", tokenId);
-                call.resolve(result);
-            }
-        } else if (requestCode == REQUEST_CODE_ACTION_TOKEN) {
-            Log.i(TAG, "ACTION_TOKEN --- ");
+    private static String activityName(int requestCode) {
+        return switch (requestCode) {
+            case REQUEST_CODE_PUSH_TOKENIZE -> "pushProvision";
+            case REQUEST_CODE_CREATE_WALLET -> "createWallet";
+            case REQUEST_CODE_ACTION_TOKEN -> "resumeTokenization";
+            case REQUEST_CODE_SELECT_TOKEN -> "requestSelectToken";
+            case REQUEST_CODE_DELETE_TOKEN -> "requestDeleteToken";
+            case REQUEST_CODE_DEFAULT_NFC -> "setGPayAsDefaultNFCApp";
+            case REQUEST_CODE_PUSH_TOKENIZE_BATCH -> "pushProvisionBatch";
+            default -> "request" + requestCode;
+        };
+    }
 
-            if (resultCode == RESULT_CANCELED) {
-                // The user canceled the request.
-                Log.i(TAG, "ACTION_TOKEN CANCEL --- ");
-                result.put("isSuccess", false);
-                call.resolve(result);
-            } else if (resultCode == RESULT_OK) {
-                Log.i(TAG, "ACTION_TOKEN SUCCESS --- ");
-                result.put("isSuccess", true);
-                call.resolve(result);
-            } else if (resultCode == RESULT_INVALID_TOKEN) {
-                Log.i(TAG, "ACTION_TOKEN WRONG TOKEN --- ");
-                call.reject("Invalid TokenReferenceID", ErrorCodeReference.INVALID_TOKEN.getError());
-            } else {
-                Log.i(TAG, "ACTION_TOKEN ERROR --- ");
-                Log.i(TAG, call.toString());
-                call.reject("ACTION_TOKEN ERROR", ErrorCodeReference.ACTION_TOKEN_ERROR.getError());
+    /**
+     * The ErrorCodeReference code the result handler rejects with, or null when the call resolves.
+     */
+    @Nullable
+    private static String activityErrorCode(int requestCode, int resultCode) {
+        if (resultCode == RESULT_OK) {
+            return null;
+        }
+        return switch (requestCode) {
+            case REQUEST_CODE_CREATE_WALLET -> resultCode == RESULT_CANCELED ? ErrorCodeReference.CREATE_WALLET_CANCEL.getError() : null;
+            case REQUEST_CODE_PUSH_TOKENIZE -> resultCode == RESULT_CANCELED ? ErrorCodeReference.PUSH_PROVISION_CANCEL.getError() : null;
+            case REQUEST_CODE_PUSH_TOKENIZE_BATCH -> resultCode == RESULT_CANCELED
+                ? ErrorCodeReference.PUSH_PROVISION_CANCEL.getError()
+                : ErrorCodeReference.PUSH_PROVISION_ERROR.getError();
+            case REQUEST_CODE_DEFAULT_NFC -> ErrorCodeReference.SET_DEFAULT_PAYMENTS_ERROR.getError();
+            default -> {
+                if (resultCode == RESULT_CANCELED) {
+                    yield null;
+                }
+                yield resultCode == RESULT_INVALID_TOKEN
+                    ? ErrorCodeReference.INVALID_TOKEN.getError()
+                    : ErrorCodeReference.ACTION_TOKEN_ERROR.getError();
             }
+        };
+    }
+
+    private void onCreateWalletResult(PluginCall call, int resultCode, @Nullable Intent data) {
+        if (resultCode == RESULT_CANCELED) {
+            // The user canceled the request.
+            call.reject("Google wallet create cancelled", ErrorCodeReference.CREATE_WALLET_CANCEL.getError());
+        } else if (resultCode == RESULT_OK) {
+            PluginLog.i("Google wallet created");
+            JSObject result = new JSObject();
+            result.put("isCreated", true);
+            call.resolve(result);
+        }
+    }
+
+    private void onPushTokenizeResult(PluginCall call, int resultCode, @Nullable Intent data) {
+        if (resultCode == RESULT_CANCELED) {
+            call.reject("PUSH_PROVISION_CANCEL", ErrorCodeReference.PUSH_PROVISION_CANCEL.getError());
+        } else if (resultCode == RESULT_OK) {
+            // The action succeeded.
+            JSObject result = new JSObject();
+            result.put("tokenId", data != null ? data.getStringExtra(TapAndPay.EXTRA_ISSUER_TOKEN_ID) : null);
+            call.resolve(result);
+        }
+    }
+
+    private void onDefaultNfcResult(PluginCall call, int resultCode, @Nullable Intent data) {
+        if (resultCode == Activity.RESULT_OK) {
+            JSObject result = new JSObject();
+            result.put("isDefault", true);
+            call.resolve(result);
+            this.nfcStateMonitor.refresh();
         } else {
-            call.resolve();
+            call.reject("Default payment set cancelled", ErrorCodeReference.SET_DEFAULT_PAYMENTS_ERROR.getError());
+        }
+    }
+
+    private void onActionTokenResult(PluginCall call, int resultCode, @Nullable Intent data) {
+        JSObject result = new JSObject();
+
+        if (resultCode == RESULT_CANCELED) {
+            // The user canceled the request.
+            PluginLog.i("ACTION_TOKEN canceled");
+            result.put("isSuccess", false);
+            call.resolve(result);
+        } else if (resultCode == RESULT_OK) {
+            PluginLog.i("ACTION_TOKEN succeeded");
+            result.put("isSuccess", true);
+            call.resolve(result);
+        } else if (resultCode == RESULT_INVALID_TOKEN) {
+            PluginLog.i("ACTION_TOKEN invalid token");
+            call.reject("Invalid TokenReferenceID", ErrorCodeReference.INVALID_TOKEN.getError());
+        } else {
+            PluginLog.w("ACTION_TOKEN failed with resultCode={}", resultCode);
+            call.reject("ACTION_TOKEN ERROR", ErrorCodeReference.ACTION_TOKEN_ERROR.getError());
         }
-        this.bridge.releaseCall(callBackId);
-        call.setKeepAlive(false);
     }
 
     public void getEnvironment(PluginCall call) {
+        final String walletId = persistedWalletId();
         try {
-            this.tapAndPay.getEnvironment()
-                .addOnCompleteListener(task -> {
-                    Log.i(TAG, "onComplete (getEnvironment) - " + task.isSuccessful());
+            environmentTask(IpcScheduler.Priority.INTERACTIVE)
+                .addOnCompleteListener(this.resultExecutor, task -> {
+                    PluginLog.d("onComplete (getEnvironment) - {}", task.isSuccessful());
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "getEnvironment: " + task.getResult());
+                        if (this.walletStateStore != null) {
+                            this.walletStateStore.putEnvironment(walletId, task.getResult());
+                        }
                         JSObject result = new JSObject();
                         result.put("value", task.getResult());
-                        call.resolve(result);
+                        resolveOnMain(call, result);
                     } else {
-                        call.reject("Environment not found", "ENV_ERROR");
+                        rejectOnMain(call, "Environment not found", "ENV_ERROR");
                     }
                 });
         } catch (Exception e) {
@@ -189,21 +592,20 @@ public class GooglePay {
 
     public void getStableHardwareId(PluginCall call) {
         try {
-            this.tapAndPay.getStableHardwareId()
-                .addOnCompleteListener(task -> {
-                    Log.i(TAG, "onComplete (getStableHardwareId) - " + task.isSuccessful());
+            hardwareIdTask()
+                .addOnCompleteListener(this.resultExecutor, task -> {
+                    PluginLog.d("onComplete (getStableHardwareId) - {}", task.isSuccessful());
                     if (task.isSuccessful()) {
-                        Log.d(TAG, "getStableHardwareId: " + task.getResult());
                         JSObject result = new JSObject();
                         result.put("hardwareId", task.getResult());
-                        call.resolve(result);
+                        resolveOnMain(call, result);
                     } else {
                         Exception exception = task.getException();
 
                         if (exception instanceof ApiException apiException) {
-                            call.reject(apiException.getMessage());
+                            rejectOnMain(call, apiException.getMessage());
                         } else {
-                            call.reject("Hardware ID not found", "NO_HARDWARE_ID");
+                            rejectOnMain(call, "Hardware ID not found", "NO_HARDWARE_ID");
                         }
                     }
                 });
@@ -214,28 +616,31 @@ public class GooglePay {
 
     public void getActiveWalletID(PluginCall call) {
         try {
-            this.tapAndPay.getActiveWalletId()
-                .addOnCompleteListener(task -> {
-                    Log.i(TAG, "onComplete (getActiveWalletID) - " + task.isSuccessful());
+            walletIdTask(IpcScheduler.Priority.INTERACTIVE)
+                .addOnCompleteListener(this.resultExecutor, task -> {
+                    PluginLog.d("onComplete (getActiveWalletID) - {}", task.isSuccessful());
                     if (task.isSuccessful()) {
                         // Next: look up token ids for the active wallet
                         // This typically involves network calls to a server with knowledge
                         // of wallets and tokens.
-                        Log.d(TAG, "getActiveWalletID: " + task.getResult());
+                        PluginLog.d("getActiveWalletID: {}", PluginLog.redact(task.getResult()));
+                        if (this.walletStateStore != null) {
+                            this.walletStateStore.putWalletId(task.getResult());
+                        }
                         JSObject result = new JSObject();
                         result.put("walletId", task.getResult());
-                        call.resolve(result);
+                        resolveOnMain(call, result);
                     } else {
                         Exception exception = task.getException();
 
                         if (exception instanceof ApiException apiException) {
                             if (apiException.getStatusCode() == TAP_AND_PAY_NO_ACTIVE_WALLET) {
-                                call.reject("Active wallet not found", "NO_ACTIVE_WALLET");
+                                rejectOnMain(call, "Active wallet not found", "NO_ACTIVE_WALLET");
                             } else {
-                                call.reject(apiException.getMessage());
+                                rejectOnMain(call, apiException.getMessage());
                             }
                         } else {
-                            call.reject("Active wallet not found", "NO_ACTIVE_WALLET");
+                            rejectOnMain(call, "Active wallet not found", "NO_ACTIVE_WALLET");
                         }
                     }
                 });
@@ -245,12 +650,11 @@ public class GooglePay {
     }
 
     public void createWallet(PluginCall call) {
+        long launch = savePendingCall(call, REQUEST_CODE_CREATE_WALLET);
         try {
-            this.bridge.saveCall(call);
-            this.callBackId = call.getCallbackId();
-            call.setKeepAlive(true);
             tapAndPay.createWallet(bridge.getActivity(), REQUEST_CODE_CREATE_WALLET);
         } catch (Exception e) {
+            discardPendingCall(call, launch, null);
             call.reject(e.getMessage());
         }
     }
@@ -267,32 +671,50 @@ public class GooglePay {
             call.reject("No tsp found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
             return;
         }
+        final CardNetwork network = CardNetwork.fromName(tsp);
+        if (network == null) {
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
+
+        final boolean bypassCache = Boolean.TRUE.equals(call.getBoolean("bypassCache", false));
+        final String walletId = persistedWalletId();
 
         try {
-            this.tapAndPay.getTokenStatus(getTSP(tsp), tokenReferenceId)
-                .addOnCompleteListener(task -> {
-                    Log.i(TAG, "onComplete (getTokenStatus) - " + task.isSuccessful());
+            fetchTokenState(network.tokenServiceProvider, tokenReferenceId, bypassCache, IpcScheduler.Priority.INTERACTIVE)
+                .addOnCompleteListener(this.resultExecutor, task -> {
+                    PluginLog.d("onComplete (getTokenStatus) - {}", task.isSuccessful());
                     if (task.isSuccessful()) {
                         @TapAndPay.TokenState
-                        int tokenStateInt = task.getResult().getTokenState();
+                        int tokenStateInt = task.getResult();
                         //                                    boolean isSelected = task.getResult().isSelected();
                         // Next: update payment card UI to reflect token state and selection
                         JSObject result = new JSObject();
                         result.put("state", tokenStateInt);
                         result.put("code", GooglePay.TokenStatusReference.getName(tokenStateInt));
-                        call.resolve(result);
+                        if (this.walletStateStore != null) {
+                            this.walletStateStore.putTokenState(
+                                walletId,
+                                tokenReferenceId,
+                                tokenStateInt,
+                                GooglePay.TokenStatusReference.getName(tokenStateInt)
+                            );
+                        }
+                        resolveOnMain(call, result);
                     } else {
                         Exception exception = task.getException();
 
                         if (exception instanceof ApiException apiException) {
                             if (apiException.getStatusCode() == TAP_AND_PAY_TOKEN_NOT_FOUND) {
                                 // Could not get token status
-                                call.reject(apiException.getMessage(), "TAP_AND_PAY_TOKEN_NOT_FOUND");
+                                rejectOnMain(call, apiException.getMessage(), "TAP_AND_PAY_TOKEN_NOT_FOUND");
                             } else {
-                                call.reject(apiException.getMessage());
+                                rejectOnMain(call, apiException.getMessage());
                             }
+                        } else if (exception instanceof CancellationException) {
+                            rejectOnMain(call, exception.getMessage(), ErrorCodeReference.CALL_CANCELED.getError());
                         } else {
-                            call.reject("TOKEN_NOT_FOUND", "TAP_AND_PAY_TOKEN_NOT_FOUND");
+                            rejectOnMain(call, "TOKEN_NOT_FOUND", "TAP_AND_PAY_TOKEN_NOT_FOUND");
                         }
                     }
                 });
@@ -301,27 +723,185 @@ public class GooglePay {
         }
     }
 
+    public void watchTokenStatus(PluginCall call) {
+        final String tokenReferenceId = call.getString("tokenReferenceId");
+        if (tokenReferenceId == null) {
+            call.reject("No tokenReferenceId found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+
+        final String tsp = call.getString("tsp");
+        if (tsp == null) {
+            call.reject("No tsp found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        final CardNetwork network = CardNetwork.fromName(tsp);
+        if (network == null) {
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
+
+        try {
+            fetchTokenState(network.tokenServiceProvider, tokenReferenceId, true, IpcScheduler.Priority.INTERACTIVE)
+                .addOnCompleteListener(this.resultExecutor, task -> {
+                    int tokenStateInt;
+                    if (task.isSuccessful()) {
+                        tokenStateInt = task.getResult();
+                    } else if (
+                        task.getException() instanceof ApiException apiException &&
+                        apiException.getStatusCode() == TAP_AND_PAY_TOKEN_NOT_FOUND
+                    ) {
+                        tokenStateInt = TokenStatusReference.TOKEN_STATE_NOT_FOUND.referenceId;
+                    } else if (task.getException() instanceof CancellationException exception) {
+                        rejectOnMain(call, exception.getMessage(), ErrorCodeReference.CALL_CANCELED.getError());
+                        return;
+                    } else {
+                        Exception exception = task.getException();
+                        rejectOnMain(call, exception != null ? exception.getMessage() : "TOKEN_NOT_FOUND", "TAP_AND_PAY_TOKEN_NOT_FOUND");
+                        return;
+                    }
+
+                    JSObject result = new JSObject();
+                    // Tokens that already settled are not worth polling
+                    if (TokenStatusWatcher.isPending(tokenStateInt)) {
+                        result.put("watchId", this.tokenStatusWatcher.watch(tsp, network.tokenServiceProvider, tokenReferenceId, tokenStateInt));
+                    } else {
+                        result.put("watchId", JSONObject.NULL);
+                    }
+                    result.put("state", tokenStateInt);
+                    result.put("code", GooglePay.TokenStatusReference.getName(tokenStateInt));
+                    resolveOnMain(call, result);
+                });
+        } catch (Exception e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    public void clearTokenStatusWatch(PluginCall call) {
+        String watchId = call.getString("watchId");
+        if (watchId == null) {
+            call.reject("No watchId found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        JSObject result = new JSObject();
+        result.put("cleared", this.tokenStatusWatcher.clear(watchId));
+        call.resolve(result);
+    }
+
+    public void getTokenStatuses(PluginCall call) {
+        JSArray tokens = call.getArray("tokens");
+        if (tokens == null) {
+            call.reject("No tokens found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+
+        final boolean bypassCache = Boolean.TRUE.equals(call.getBoolean("bypassCache", false));
+
+        try {
+            List<JSObject> entries = new ArrayList<>(tokens.length());
+            List<Task<Integer>> tasks = new ArrayList<>(tokens.length());
+            for (int i = 0; i < tokens.length(); i++) {
+                JSObject entry = JSObject.fromJSONObject(tokens.getJSONObject(i));
+                String tokenReferenceId = entry.getString("tokenReferenceId");
+                String tsp = entry.getString("tsp");
+                CardNetwork network = CardNetwork.fromName(tsp);
+                entries.add(entry);
+                if (tokenReferenceId == null) {
+                    tasks.add(Tasks.forException(new IllegalArgumentException("No tokenReferenceId found")));
+                } else if (tsp == null) {
+                    tasks.add(Tasks.forException(new IllegalArgumentException("No tsp found")));
+                } else if (network == null) {
+                    tasks.add(Tasks.forException(new CardNetwork.UnsupportedException(tsp)));
+                } else {
+                    tasks.add(fetchTokenState(network.tokenServiceProvider, tokenReferenceId, bypassCache, IpcScheduler.Priority.INTERACTIVE));
+                }
+            }
+
+            // Every lookup runs concurrently, a failed token only marks its own entry
+            Tasks
+                .whenAllComplete(tasks)
+                .addOnCompleteListener(this.resultExecutor, all -> {
+                    PluginLog.d("onComplete (getTokenStatuses) - {}", tasks.size());
+                    JSArray statuses = new JSArray();
+                    for (int i = 0; i < tasks.size(); i++) {
+                        Task<Integer> task = tasks.get(i);
+                        JSObject entry = entries.get(i);
+                        JSObject status = new JSObject();
+                        status.put("tokenReferenceId", entry.getString("tokenReferenceId"));
+                        status.put("tsp", entry.getString("tsp"));
+                        if (task.isSuccessful()) {
+                            int tokenStateInt = task.getResult();
+                            status.put("state", tokenStateInt);
+                            status.put("code", GooglePay.TokenStatusReference.getName(tokenStateInt));
+                        } else {
+                            status.put("error", tokenStatusError(task.getException()));
+                        }
+                        statuses.put(status);
+                    }
+                    JSObject result = new JSObject();
+                    result.put("statuses", statuses);
+                    resolveOnMain(call, result);
+                });
+        } catch (Exception e) {
+            call.reject(e.getMessage(), ErrorCodeReference.MISSING_DATA_ERROR.getError());
+        }
+    }
+
     public void listTokens(PluginCall call) {
+        final boolean detailed = Boolean.TRUE.equals(call.getBoolean("detailed", false));
+        final boolean bypassCache = Boolean.TRUE.equals(call.getBoolean("bypassCache", false));
+        final Integer pageSize = call.getInt("pageSize");
+        final String cursor = call.getString("cursor");
+        final String tsp = call.getString("tsp");
+        final JSArray states = call.getArray("states");
+        if (pageSize != null && pageSize < 1) {
+            call.reject("pageSize must be at least 1", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        final CardNetwork network = tsp != null ? CardNetwork.fromName(tsp) : null;
+        if (tsp != null && network == null) {
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
+        final int[] stateFilter;
+        try {
+            stateFilter = states != null ? toIntArray(states) : null;
+        } catch (JSONException e) {
+            call.reject("states must be numbers", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        if (pageSize != null || cursor != null || network != null || stateFilter != null) {
+            listTokenPage(
+                call,
+                bypassCache,
+                network != null ? network.tokenServiceProvider : TokenPage.ANY_TSP,
+                stateFilter,
+                cursor,
+                pageSize != null ? Math.min(pageSize, TokenPage.MAX_PAGE_SIZE) : Integer.MAX_VALUE,
+                detailed
+            );
+            return;
+        }
+        final String walletId = persistedWalletId();
         try {
-            this.tapAndPay.listTokens()
-                .addOnCompleteListener(task -> {
+            fetchTokens(bypassCache, IpcScheduler.Priority.INTERACTIVE)
+                .addOnCompleteListener(this.resultExecutor, task -> {
                     if (task.isSuccessful()) {
                         JSObject result = new JSObject();
-                        JSArray tokens = new JSArray();
-                        Log.i(TAG, "listTokens: " + task.getResult());
-                        for (TokenInfo token : task.getResult()) {
-                            Log.d(TAG, "Found token with ID: " + token.getIssuerTokenId());
-                            tokens.put(token.getIssuerTokenId());
+                        PluginLog.d("listTokens: {} tokens", task.getResult().size());
+                        JSArray tokens = encodeTokens(task.getResult(), detailed);
+                        if (this.walletStateStore != null) {
+                            this.walletStateStore.putTokens(walletId, detailed ? tokens : encodeTokens(task.getResult(), true));
                         }
                         result.put("tokens", tokens);
-                        call.resolve(result);
+                        resolveOnMain(call, result);
                     } else {
                         Exception exception = task.getException();
-                        Log.i(TAG, "listTokens" + exception);
+                        PluginLog.w("listTokens failed: {}", exception);
                         if (exception instanceof ApiException apiException) {
-                            call.reject(apiException.getMessage());
+                            rejectOnMain(call, apiException.getMessage());
                         } else {
-                            call.reject("LIST_TOKEN_ERROR", "LIST_TOKEN_ERROR");
+                            rejectOnMain(call, "LIST_TOKEN_ERROR", "LIST_TOKEN_ERROR");
                         }
                     }
                 });
@@ -330,6 +910,184 @@ public class GooglePay {
         }
     }
 
+    /**
+     * Serves one filtered page from the token list, which stays cached between pages for tokenCacheTtl.
+     */
+    private void listTokenPage(
+        PluginCall call,
+        boolean bypassCache,
+        int tsp,
+        @Nullable int[] states,
+        @Nullable String cursor,
+        int pageSize,
+        boolean detailed
+    ) {
+        // Later pages read the list the first one fetched, unless it changed in the meantime
+        boolean refresh = bypassCache && cursor == null;
+        try {
+            fetchTokens(refresh, IpcScheduler.Priority.INTERACTIVE)
+                .addOnCompleteListener(this.resultExecutor, task -> {
+                    if (!task.isSuccessful()) {
+                        Exception exception = task.getException();
+                        PluginLog.w("listTokens failed: {}", exception);
+                        if (exception instanceof ApiException apiException) {
+                            rejectOnMain(call, apiException.getMessage());
+                        } else {
+                            rejectOnMain(call, "LIST_TOKEN_ERROR", "LIST_TOKEN_ERROR");
+                        }
+                        return;
+                    }
+                    try {
+                        resolveOnMain(call, TokenPage.encode(task.getResult(), tsp, states, cursor, pageSize, detailed));
+                    } catch (IllegalArgumentException e) {
+                        rejectOnMain(call, e.getMessage(), ErrorCodeReference.MISSING_DATA_ERROR.getError());
+                    }
+                });
+        } catch (Exception e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    private static int[] toIntArray(JSArray values) throws JSONException {
+        int[] result = new int[values.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.getInt(i);
+        }
+        return result;
+    }
+
+    public void getWalletSnapshot(PluginCall call) {
+        final boolean includeTokenStatuses = Boolean.TRUE.equals(call.getBoolean("includeTokenStatuses", false));
+        final boolean bypassCache = Boolean.TRUE.equals(call.getBoolean("bypassCache", false));
+
+        try {
+            // Every query starts right away, the snapshot resolves once all of them settled
+            Task<String> environment = environmentTask(IpcScheduler.Priority.INTERACTIVE);
+            Task<String> walletId = walletIdTask(IpcScheduler.Priority.INTERACTIVE);
+            Task<String> hardwareId = hardwareIdTask();
+            Task<List<WalletToken>> tokens = fetchTokens(bypassCache, IpcScheduler.Priority.INTERACTIVE);
+
+            Tasks
+                .whenAllComplete(environment, walletId, hardwareId, tokens)
+                .addOnCompleteListener(this.resultExecutor, all -> {
+                    PluginLog.d("onComplete (getWalletSnapshot)");
+                    JSObject result = new JSObject();
+                    result.put("environment", snapshotField(environment, "ENV_ERROR"));
+                    result.put("walletId", snapshotField(walletId, "NO_ACTIVE_WALLET"));
+                    result.put("hardwareId", snapshotField(hardwareId, "NO_HARDWARE_ID"));
+
+                    JSObject tokensField;
+                    if (tokens.isSuccessful()) {
+                        tokensField = new JSObject();
+                        tokensField.put("value", encodeTokens(tokens.getResult(), includeTokenStatuses));
+                    } else {
+                        tokensField = snapshotField(tokens, "LIST_TOKEN_ERROR");
+                    }
+                    result.put("tokens", tokensField);
+
+                    JSObject nfcField = new JSObject();
+                    try {
+                        JSObject nfc = this.nfcStateMonitor.get();
+                        if (nfc != null) {
+                            nfcField.put("value", nfc);
+                        } else {
+                            nfcField.put("error", snapshotError("NFC is not supported", "NFC_SERVICE_NOT_SUPPORTED"));
+                        }
+                    } catch (Exception e) {
+                        nfcField.put("error", snapshotError(e.getMessage(), "NFC_SERVICE_NOT_SUPPORTED"));
+                    }
+                    result.put("nfc", nfcField);
+
+                    resolveOnMain(call, result);
+                });
+        } catch (Exception e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    public void getCachedWalletState(PluginCall call) {
+        JSObject result = new JSObject();
+        JSObject state = this.walletStateStore != null ? this.walletStateStore.get() : null;
+        result.put("state", state != null ? state : JSONObject.NULL);
+        call.resolve(result);
+        reconcileWalletState();
+    }
+
+    /**
+     * Refreshes the persisted wallet state from Google Pay and emits walletStateChanged when it differs.
+     */
+    private void reconcileWalletState() {
+        if (this.walletStateStore == null || !this.reconcilingWalletState.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Task<String> environment = environmentTask(IpcScheduler.Priority.BACKGROUND);
+            Task<String> walletId = walletIdTask(IpcScheduler.Priority.BACKGROUND);
+            Task<List<WalletToken>> tokens = fetchTokens(true, IpcScheduler.Priority.BACKGROUND);
+
+            Tasks
+                .whenAllComplete(environment, walletId, tokens)
+                .addOnCompleteListener(this.resultExecutor, all -> {
+                    this.reconcilingWalletState.set(false);
+                    if (!walletId.isSuccessful() || !tokens.isSuccessful()) {
+                        // Keep what we have until Google Pay answers
+                        return;
+                    }
+                    JSObject live = new JSObject();
+                    live.put("environment", environment.isSuccessful() ? environment.getResult() : JSONObject.NULL);
+                    live.put("walletId", walletId.getResult());
+                    live.put("tokens", encodeTokens(tokens.getResult(), true));
+                    JSObject diff = this.walletStateStore.reconcile(live);
+                    if (diff != null && this.dataChangeListener != null) {
+                        this.dataChangeListener.onDateChanged("walletStateChanged", diff, true);
+                    }
+                });
+        } catch (Exception e) {
+            this.reconcilingWalletState.set(false);
+            PluginLog.w("reconcileWalletState failed: {}", e);
+        }
+    }
+
+    PluginMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    public void getMetrics(PluginCall call) {
+        JSObject result = this.metrics.toJSObject();
+        JSObject cache = new JSObject();
+        cache.put("hits", this.tokenStatusCache.getHits());
+        cache.put("misses", this.tokenStatusCache.getMisses());
+        cache.put("coalesced", this.singleFlight.getCoalesced());
+        result.put("cache", cache);
+        result.put("pendingActivities", this.pendingCalls.size());
+        result.put("breaker", this.callGuard.getBreaker().toJSObject());
+        result.put("scheduler", this.ipc.toJSObject());
+        call.resolve(result);
+    }
+
+    public void resetMetrics(PluginCall call) {
+        this.metrics.reset();
+        call.resolve();
+    }
+
+    public void exportTrace(PluginCall call) {
+        JSObject result = this.trace.export();
+        if (Boolean.TRUE.equals(call.getBoolean("clear", false))) {
+            this.trace.clear();
+        }
+        call.resolve(result);
+    }
+
+    public void getCacheStats(PluginCall call) {
+        JSObject result = new JSObject();
+        result.put("hits", this.tokenStatusCache.getHits());
+        result.put("misses", this.tokenStatusCache.getMisses());
+        result.put("size", this.tokenStatusCache.size());
+        result.put("coalesced", this.singleFlight.getCoalesced());
+        result.put("inFlight", this.singleFlight.size());
+        call.resolve(result);
+    }
+
     public void isTokenized(PluginCall call) {
         String tsp = call.getString("tsp");
         String lastDigits = call.getString("lastDigits");
@@ -341,33 +1099,44 @@ public class GooglePay {
             call.reject("No lastDigits found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
             return;
         }
+        final CardNetwork network = CardNetwork.fromName(tsp);
+        if (network == null) {
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
+        final boolean bypassCache = Boolean.TRUE.equals(call.getBoolean("bypassCache", false));
+        if (!bypassCache) {
+            Boolean indexed = this.tokenizedIndex.isTokenized(network.network, lastDigits);
+            if (indexed != null) {
+                JSObject result = new JSObject();
+                result.put("isTokenized", indexed.booleanValue());
+                call.resolve(result);
+                return;
+            }
+        }
         try {
-            IsTokenizedRequest request = new IsTokenizedRequest.Builder()
-                .setIdentifier(lastDigits)
-                .setNetwork(getCardNetwork(tsp))
-                .setTokenServiceProvider(getTSP(tsp))
-                .build();
-
-            this.tapAndPay.isTokenized(request)
-                .addOnCompleteListener(task -> {
+            isTokenizedTask(network, lastDigits, IpcScheduler.Priority.INTERACTIVE)
+                .addOnCompleteListener(this.resultExecutor, task -> {
                     if (task.isSuccessful()) {
                         Boolean isTokenized = task.getResult();
                         JSObject result = new JSObject();
                         result.put("isTokenized", isTokenized.booleanValue());
-                        call.resolve(result);
+                        resolveOnMain(call, result);
                     } else {
                         Exception exception = task.getException();
                         if (exception instanceof ApiException apiException) {
-                            call.reject(apiException.getMessage(), ErrorCodeReference.IS_TOKENIZED_ERROR.getError());
+                            rejectOnMain(call, apiException.getMessage(), ErrorCodeReference.IS_TOKENIZED_ERROR.getError());
+                        } else if (exception instanceof CancellationException) {
+                            rejectOnMain(call, exception.getMessage(), ErrorCodeReference.CALL_CANCELED.getError());
                         } else {
                             if (exception != null) {
-                                call.reject(exception.getMessage(), ErrorCodeReference.IS_TOKENIZED_ERROR.getError());
+                                rejectOnMain(call, exception.getMessage(), ErrorCodeReference.IS_TOKENIZED_ERROR.getError());
                             } else {
-                                call.reject("IS_TOKENIZED_ERROR", ErrorCodeReference.IS_TOKENIZED_ERROR.getError());
+                                rejectOnMain(call, "IS_TOKENIZED_ERROR", ErrorCodeReference.IS_TOKENIZED_ERROR.getError());
                             }
                         }
 
-                        Log.i(TAG, "isTokenized" + exception);
+                        PluginLog.w("isTokenized failed: {}", exception);
                     }
                 });
         } catch (Exception e) {
@@ -375,69 +1144,467 @@ public class GooglePay {
         }
     }
 
+    public void isTokenizedMany(PluginCall call) {
+        JSArray cards = call.getArray("cards");
+        if (cards == null) {
+            call.reject("No cards found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        final boolean bypassCache = Boolean.TRUE.equals(call.getBoolean("bypassCache", false));
+
+        try {
+            List<JSObject> entries = new ArrayList<>(cards.length());
+            for (int i = 0; i < cards.length(); i++) {
+                entries.add(JSObject.fromJSONObject(cards.getJSONObject(i)));
+            }
+
+            // A single listTokens warms the index for the whole batch
+            Task<List<WalletToken>> warmUp;
+            if (bypassCache || this.tokenizedIndex.isWarm()) {
+                warmUp = Tasks.forResult(null);
+            } else {
+                warmUp = fetchTokens(false, IpcScheduler.Priority.INTERACTIVE);
+            }
+
+            warmUp.addOnCompleteListener(this.resultExecutor, ignored -> {
+                List<Task<Boolean>> tasks = new ArrayList<>(entries.size());
+                for (JSObject entry : entries) {
+                    String tsp = entry.getString("tsp");
+                    String lastDigits = entry.getString("lastDigits");
+                    CardNetwork network = CardNetwork.fromName(tsp);
+                    if (tsp == null) {
+                        tasks.add(Tasks.forException(new IllegalArgumentException("No tsp found")));
+                    } else if (lastDigits == null) {
+                        tasks.add(Tasks.forException(new IllegalArgumentException("No lastDigits found")));
+                    } else if (network == null) {
+                        tasks.add(Tasks.forException(new CardNetwork.UnsupportedException(tsp)));
+                    } else {
+                        Boolean indexed = bypassCache ? null : this.tokenizedIndex.isTokenized(network.network, lastDigits);
+                        tasks.add(
+                            indexed != null ? Tasks.forResult(indexed) : isTokenizedTask(network, lastDigits, IpcScheduler.Priority.INTERACTIVE)
+                        );
+                    }
+                }
+
+                Tasks
+                    .whenAllComplete(tasks)
+                    .addOnCompleteListener(this.resultExecutor, all -> {
+                        PluginLog.d("onComplete (isTokenizedMany) - {}", tasks.size());
+                        JSArray results = new JSArray();
+                        for (int i = 0; i < tasks.size(); i++) {
+                            Task<Boolean> task = tasks.get(i);
+                            JSObject entry = entries.get(i);
+                            JSObject card = new JSObject();
+                            card.put("tsp", entry.getString("tsp"));
+                            card.put("lastDigits", entry.getString("lastDigits"));
+                            if (task.isSuccessful()) {
+                                card.put("isTokenized", task.getResult().booleanValue());
+                            } else {
+                                card.put("error", isTokenizedError(task.getException()));
+                            }
+                            results.put(card);
+                        }
+                        JSObject result = new JSObject();
+                        result.put("results", results);
+                        resolveOnMain(call, result);
+                    });
+            });
+        } catch (Exception e) {
+            call.reject(e.getMessage(), ErrorCodeReference.MISSING_DATA_ERROR.getError());
+        }
+    }
+
     public void pushProvision(PluginCall call) {
-        Log.i(TAG, "PUSHPROVISION --- 1");
+        PluginLog.i("pushProvision started");
+        this.trace.record("pushProvision", "start");
         String opcData = call.getString("opc");
         if (opcData == null) {
+            traceRejected("pushProvision", ErrorCodeReference.MISSING_DATA_ERROR);
             call.reject("No OPC found");
             return;
         }
-        byte[] opc = opcData.getBytes();
         String tsp = call.getString("tsp");
         String clientName = call.getString("clientName");
         String lastDigits = call.getString("lastDigits");
         JSONObject address = call.getObject("address");
         if (tsp == null) {
+            traceRejected("pushProvision", ErrorCodeReference.MISSING_DATA_ERROR);
             call.reject("No tsp found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
             return;
         }
         if (lastDigits == null) {
+            traceRejected("pushProvision", ErrorCodeReference.MISSING_DATA_ERROR);
             call.reject("No lastDigits found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
             return;
         }
         if (clientName == null) {
+            traceRejected("pushProvision", ErrorCodeReference.MISSING_DATA_ERROR);
             call.reject("No clientName found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
             return;
         }
         if (Objects.isNull(address)) {
+            traceRejected("pushProvision", ErrorCodeReference.MISSING_DATA_ERROR);
             call.reject("No address found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
             return;
         }
+        final CardNetwork network = CardNetwork.fromName(tsp);
+        if (network == null) {
+            traceRejected("pushProvision", ErrorCodeReference.UNSUPPORTED_NETWORK_ERROR);
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
+        final UserAddress userAddress;
+        final byte[] opc;
+        try {
+            userAddress = buildUserAddress(address);
+            // Decoded last, so rejected input never allocates the payload
+            opc = OpcCodec.decode(opcData, call.getString("opcEncoding"));
+        } catch (IllegalArgumentException e) {
+            traceRejected("pushProvision", ErrorCodeReference.MISSING_DATA_ERROR);
+            call.reject(e.getMessage(), ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        long launch = 0;
         try {
-            UserAddress userAddress = UserAddress
-                .newBuilder()
-                .setName(Objects.requireNonNullElse(address.getString("name"), ""))
-                .setAddress1(Objects.requireNonNullElse(address.getString("address1"), ""))
-                .setAddress2(Objects.requireNonNullElse(address.getString("address2"), ""))
-                .setLocality(Objects.requireNonNullElse(address.getString("locality"), ""))
-                .setAdministrativeArea(Objects.requireNonNullElse(address.getString("administrativeArea"), ""))
-                .setCountryCode(Objects.requireNonNullElse(address.getString("countryCode"), ""))
-                .setPostalCode(Objects.requireNonNullElse(address.getString("postalCode"), ""))
-                .setPhoneNumber(Objects.requireNonNullElse(address.getString("phoneNumber"), ""))
-                .build();
-
-            PushTokenizeRequest pushTokenizeRequest = new PushTokenizeRequest.Builder()
-                .setOpaquePaymentCard(opc)
-                .setNetwork(getCardNetwork(tsp))
-                .setTokenServiceProvider(getTSP(tsp))
-                .setDisplayName(clientName)
-                .setLastDigits(lastDigits)
-                .setUserAddress(userAddress)
-                .build();
-            Log.i(TAG, "PUSHPROVISION --- 2");
-            this.bridge.saveCall(call);
-            this.callBackId = call.getCallbackId();
-            call.setKeepAlive(true);
+            launch = savePendingCall(call, REQUEST_CODE_PUSH_TOKENIZE);
+            // Play services may parcel the request after pushTokenize returns, so the bytes live until the result
+            synchronized (this.pendingOpcs) {
+                this.pendingOpcs.put(launch, opc);
+            }
             // Start the Activity for result using the name of the callback method
-            Log.i(TAG, "PUSHPROVISION --- 3");
+            PluginLog.i("pushProvision launching, launch={}", launch);
 
             // a request code value you define as in Android's startActivityForResult
-            tapAndPay.pushTokenize(bridge.getActivity(), pushTokenizeRequest, REQUEST_CODE_PUSH_TOKENIZE);
+            tapAndPay.pushTokenize(
+                bridge.getActivity(),
+                opc,
+                network.network,
+                network.tokenServiceProvider,
+                clientName,
+                lastDigits,
+                userAddress,
+                REQUEST_CODE_PUSH_TOKENIZE
+            );
         } catch (Exception e) {
+            discardPendingCall(call, launch, ErrorCodeReference.PUSH_PROVISION_ERROR);
+            OpcCodec.wipe(opc);
             call.reject(e.getMessage(), ErrorCodeReference.PUSH_PROVISION_ERROR.getError());
         }
     }
 
+    public void pushProvisionBatch(PluginCall call) {
+        this.trace.record("pushProvisionBatch", "start");
+        JSArray cards = call.getArray("cards");
+        if (cards == null || cards.length() == 0) {
+            traceRejected("pushProvisionBatch", ErrorCodeReference.MISSING_DATA_ERROR);
+            call.reject("No cards found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        if (this.provisionBatchStore.isActive()) {
+            traceRejected("pushProvisionBatch", ErrorCodeReference.PROVISION_BATCH_PENDING);
+            call.reject("A provisioning batch is pending", ErrorCodeReference.PROVISION_BATCH_PENDING.getError());
+            return;
+        }
+        List<ProvisionBatchStore.Card> batch = new ArrayList<>(cards.length());
+        Map<String, byte[]> opcs = new HashMap<>();
+        try {
+            for (int i = 0; i < cards.length(); i++) {
+                JSObject card = JSObject.fromJSONObject(cards.getJSONObject(i));
+                for (String field : BATCH_CARD_FIELDS) {
+                    if (card.isNull(field)) {
+                        traceRejected("pushProvisionBatch", ErrorCodeReference.MISSING_DATA_ERROR);
+                        call.reject("No " + field + " found for card " + i, ErrorCodeReference.MISSING_DATA_ERROR.getError());
+                        return;
+                    }
+                }
+                String opcRef = card.getString("opcRef");
+                String opc = card.getString("opc");
+                String tsp = card.getString("tsp");
+                String clientName = card.getString("clientName");
+                String lastDigits = card.getString("lastDigits");
+                JSONObject address = card.getJSONObject("address");
+                if (opcs.containsKey(opcRef)) {
+                    traceRejected("pushProvisionBatch", ErrorCodeReference.MISSING_DATA_ERROR);
+                    call.reject("Duplicate opcRef " + opcRef, ErrorCodeReference.MISSING_DATA_ERROR.getError());
+                    return;
+                }
+                if (CardNetwork.fromName(tsp) == null) {
+                    traceRejected("pushProvisionBatch", ErrorCodeReference.UNSUPPORTED_NETWORK_ERROR);
+                    rejectUnsupportedNetwork(call, tsp);
+                    return;
+                }
+                // Fail before anything is persisted rather than at the card's turn
+                buildUserAddress(address);
+                opcs.put(opcRef, OpcCodec.decode(opc, card.getString("opcEncoding")));
+                batch.add(new ProvisionBatchStore.Card(i, opcRef, tsp, clientName, lastDigits, address));
+            }
+        } catch (JSONException | IllegalArgumentException e) {
+            for (byte[] opc : opcs.values()) {
+                OpcCodec.wipe(opc);
+            }
+            traceRejected("pushProvisionBatch", ErrorCodeReference.MISSING_DATA_ERROR);
+            call.reject(e.getMessage(), ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+
+        this.provisionBatchStore.start(UUID.randomUUID().toString(), batch);
+        synchronized (this.batchOpcs) {
+            this.batchOpcs.putAll(opcs);
+        }
+        startBatchCall(call);
+        advanceBatch();
+    }
+
+    public void resumeProvisionBatch(PluginCall call) {
+        if (!this.provisionBatchStore.isActive()) {
+            call.reject("No provisioning batch found", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        if (this.batchCallbackId != null || this.batchLaunched) {
+            call.reject("The provisioning batch is running", ErrorCodeReference.PROVISION_BATCH_PENDING.getError());
+            return;
+        }
+        JSObject opcs = call.getObject("opcs", new JSObject());
+        String opcEncoding = call.getString("opcEncoding");
+        Map<String, byte[]> decoded = new HashMap<>();
+        try {
+            Iterator<String> refs = opcs.keys();
+            while (refs.hasNext()) {
+                String opcRef = refs.next();
+                if (!opcs.isNull(opcRef)) {
+                    decoded.put(opcRef, OpcCodec.decode(opcs.optString(opcRef), opcEncoding));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            for (byte[] opc : decoded.values()) {
+                OpcCodec.wipe(opc);
+            }
+            call.reject(e.getMessage(), ErrorCodeReference.MISSING_DATA_ERROR.getError());
+            return;
+        }
+        synchronized (this.batchOpcs) {
+            for (Map.Entry<String, byte[]> entry : decoded.entrySet()) {
+                OpcCodec.wipe(this.batchOpcs.put(entry.getKey(), entry.getValue()));
+            }
+        }
+        this.trace.record("pushProvisionBatch", "start");
+        this.provisionBatchStore.recoverLaunched();
+        startBatchCall(call);
+        advanceBatch();
+    }
+
+    public void getPendingProvisionBatch(PluginCall call) {
+        JSObject batch = this.provisionBatchStore.snapshot();
+        JSObject result = new JSObject();
+        result.put("batch", batch != null ? batch : JSONObject.NULL);
+        result.put("running", this.batchCallbackId != null || this.batchLaunched);
+        call.resolve(result);
+    }
+
+    public void clearProvisionBatch(PluginCall call) {
+        if (this.batchLaunched) {
+            call.reject("A card of the batch is being provisioned", ErrorCodeReference.PROVISION_BATCH_PENDING.getError());
+            return;
+        }
+        JSObject batch = this.provisionBatchStore.snapshot();
+        this.provisionBatchStore.clear();
+        wipeBatchOpcs();
+        if (batch != null) {
+            settleBatchCall(batch);
+        }
+        JSObject result = new JSObject();
+        result.put("cleared", batch != null);
+        call.resolve(result);
+    }
+
+    private void startBatchCall(PluginCall call) {
+        this.bridge.saveCall(call);
+        call.setKeepAlive(true);
+        this.batchCallbackId = call.getCallbackId();
+    }
+
+    /**
+     * Provisions the next pending card, skipping it when Google Pay already has it. Stops when a card's opc is
+     * not in memory, i.e. after a process restart, until resumeProvisionBatch supplies it.
+     */
+    private void advanceBatch() {
+        final String batchId = this.provisionBatchStore.getBatchId();
+        ProvisionBatchStore.Card card = batchId != null ? this.provisionBatchStore.next() : null;
+        if (card == null) {
+            JSObject batch = this.provisionBatchStore.snapshot();
+            this.provisionBatchStore.clear();
+            wipeBatchOpcs();
+            if (batch != null) {
+                settleBatchCall(batch);
+            }
+            return;
+        }
+        final byte[] opc;
+        synchronized (this.batchOpcs) {
+            opc = this.batchOpcs.get(card.opcRef);
+        }
+        JSObject snapshot = this.provisionBatchStore.snapshot();
+        if (opc == null || snapshot == null) {
+            if (snapshot != null) {
+                settleBatchCall(snapshot);
+            }
+            return;
+        }
+
+        final CardNetwork network = Objects.requireNonNull(CardNetwork.fromName(card.tsp));
+        Boolean indexed = this.tokenizedIndex.isTokenized(network.network, card.lastDigits);
+        Task<Boolean> check = indexed != null
+            ? Tasks.forResult(indexed)
+            : isTokenizedTask(network, card.lastDigits, IpcScheduler.Priority.INTERACTIVE);
+        check.addOnCompleteListener(this.resultExecutor, task -> {
+            if (!batchId.equals(this.provisionBatchStore.getBatchId())) {
+                // Cleared while we were checking
+                return;
+            }
+            if (task.isSuccessful() && Boolean.TRUE.equals(task.getResult())) {
+                releaseBatchOpc(card.opcRef);
+                this.provisionBatchStore.update(card, ProvisionBatchStore.STATUS_SKIPPED, null, null);
+                emitBatchProgress(batchId, card);
+                advanceBatch();
+                return;
+            }
+            // A failed check does not hold the card back, Google Pay turns duplicates down itself
+            this.bridge.executeOnMainThread(() -> launchBatchCard(batchId, card, network, opc));
+        });
+    }
+
+    private void launchBatchCard(String batchId, ProvisionBatchStore.Card card, CardNetwork network, byte[] opc) {
+        if (!batchId.equals(this.provisionBatchStore.getBatchId())) {
+            return;
+        }
+        try {
+            UserAddress userAddress = buildUserAddress(card.address);
+            this.provisionBatchStore.update(card, ProvisionBatchStore.STATUS_LAUNCHED, null, null);
+            this.batchLaunched = true;
+            this.batchLaunchedAt = PluginMetrics.now();
+            updateBackgroundHold();
+            this.trace.record("pushProvisionBatch", "launch", REQUEST_CODE_PUSH_TOKENIZE_BATCH, TraceBuffer.NONE, 0, null, 0);
+            PluginLog.i("pushProvisionBatch launching card {}", card.index);
+            this.tapAndPay.pushTokenize(
+                    bridge.getActivity(),
+                    opc,
+                    network.network,
+                    network.tokenServiceProvider,
+                    card.clientName,
+                    card.lastDigits,
+                    userAddress,
+                    REQUEST_CODE_PUSH_TOKENIZE_BATCH
+                );
+            emitBatchProgress(batchId, card);
+        } catch (Exception e) {
+            this.batchLaunched = false;
+            updateBackgroundHold();
+            releaseBatchOpc(card.opcRef);
+            this.provisionBatchStore.update(
+                    card,
+                    ProvisionBatchStore.STATUS_FAILED,
+                    null,
+                    snapshotError(e.getMessage(), ErrorCodeReference.PUSH_PROVISION_ERROR.getError())
+                );
+            emitBatchProgress(batchId, card);
+            advanceBatch();
+        }
+    }
+
+    private void onBatchResult(int resultCode, @Nullable Intent data) {
+        boolean launchedHere = this.batchLaunched;
+        this.batchLaunched = false;
+        updateBackgroundHold();
+        String batchId = this.provisionBatchStore.getBatchId();
+        ProvisionBatchStore.Card card = this.provisionBatchStore.launched();
+        String errorCode = activityErrorCode(REQUEST_CODE_PUSH_TOKENIZE_BATCH, resultCode);
+        if (batchId == null || card == null) {
+            this.trace.record("pushProvisionBatch", "orphanResult", REQUEST_CODE_PUSH_TOKENIZE_BATCH, resultCode, 0, null, 0);
+            return;
+        }
+        if (launchedHere) {
+            this.metrics.record("pushProvisionBatch.activity", this.batchLaunchedAt, resultCode == RESULT_OK);
+        }
+        this.trace.record("pushProvisionBatch", "result", REQUEST_CODE_PUSH_TOKENIZE_BATCH, resultCode, 0, errorCode, 0);
+        releaseBatchOpc(card.opcRef);
+
+        if (resultCode == RESULT_OK) {
+            String tokenId = data != null ? data.getStringExtra(TapAndPay.EXTRA_ISSUER_TOKEN_ID) : null;
+            this.provisionBatchStore.update(card, ProvisionBatchStore.STATUS_PROVISIONED, tokenId, null);
+        } else if (resultCode == RESULT_CANCELED) {
+            this.provisionBatchStore.update(card, ProvisionBatchStore.STATUS_CANCELED, null, snapshotError("PUSH_PROVISION_CANCEL", errorCode));
+        } else {
+            this.provisionBatchStore.update(
+                    card,
+                    ProvisionBatchStore.STATUS_FAILED,
+                    null,
+                    snapshotError("PUSH_PROVISION_ERROR " + resultCode, errorCode)
+                );
+        }
+        emitBatchProgress(batchId, card);
+
+        if (resultCode == RESULT_CANCELED || !launchedHere) {
+            // The user backed out, or nobody is waiting in this process: leave the rest for resumeProvisionBatch
+            JSObject batch = this.provisionBatchStore.snapshot();
+            if (batch != null) {
+                settleBatchCall(batch);
+            }
+            return;
+        }
+        advanceBatch();
+    }
+
+    private void emitBatchProgress(String batchId, ProvisionBatchStore.Card card) {
+        DateChangeListener listener = this.dataChangeListener;
+        if (listener == null) {
+            return;
+        }
+        JSObject event = new JSObject();
+        event.put("batchId", batchId);
+        event.put("total", this.provisionBatchStore.size());
+        event.put("card", card.toJSObject());
+        listener.onDateChanged("provisionBatchProgress", event, true);
+    }
+
+    /**
+     * Resolves the waiting pushProvisionBatch or resumeProvisionBatch call with the batch as it stands.
+     */
+    private void settleBatchCall(JSObject batch) {
+        String callbackId = this.batchCallbackId;
+        this.batchCallbackId = null;
+        if (callbackId == null) {
+            return;
+        }
+        PluginCall call = this.bridge.getSavedCall(callbackId);
+        if (call == null) {
+            return;
+        }
+        resolveOnMain(call, batch);
+        this.bridge.releaseCall(callbackId);
+        call.setKeepAlive(false);
+    }
+
+    private void wipePendingOpc(long launch) {
+        synchronized (this.pendingOpcs) {
+            OpcCodec.wipe(this.pendingOpcs.remove(launch));
+        }
+    }
+
+    private void releaseBatchOpc(String opcRef) {
+        synchronized (this.batchOpcs) {
+            OpcCodec.wipe(this.batchOpcs.remove(opcRef));
+        }
+    }
+
+    private void wipeBatchOpcs() {
+        synchronized (this.batchOpcs) {
+            for (byte[] opc : this.batchOpcs.values()) {
+                OpcCodec.wipe(opc);
+            }
+            this.batchOpcs.clear();
+        }
+    }
+
     public void resumeTokenization(PluginCall call) {
         String tokenReferenceId = call.getString("tokenReferenceId");
         String tsp = call.getString("tsp");
@@ -451,27 +1618,29 @@ public class GooglePay {
             call.reject("No tsp found");
             return;
         }
+        final CardNetwork network = CardNetwork.fromName(tsp);
+        if (network == null) {
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
 
+        long launch = savePendingCall(call, REQUEST_CODE_ACTION_TOKEN);
         try {
-            this.bridge.saveCall(call);
-            this.callBackId = call.getCallbackId();
-            call.setKeepAlive(true);
-
             tapAndPay.tokenize(
                 bridge.getActivity(),
                 tokenReferenceId,
-                getTSP(tsp),
+                network.tokenServiceProvider,
                 "Cocos Card",
-                getCardNetwork(tsp),
+                network.network,
                 REQUEST_CODE_ACTION_TOKEN
             );
         } catch (Exception e) {
+            discardPendingCall(call, launch, ErrorCodeReference.ACTION_TOKEN_ERROR);
             call.reject("Error resuming tokenization: " + e.getMessage(), ErrorCodeReference.ACTION_TOKEN_ERROR.getError());
         }
     }
 
     public void requestSelectToken(PluginCall call) {
-        Log.i(TAG, "selectToken --- 1");
         String tokenReferenceId = call.getString("tokenReferenceId");
         if (tokenReferenceId == null) {
             call.reject("No tokenReferenceId found");
@@ -482,19 +1651,22 @@ public class GooglePay {
             call.reject("No tsp found");
             return;
         }
+        final CardNetwork network = CardNetwork.fromName(tsp);
+        if (network == null) {
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
+        long launch = savePendingCall(call, REQUEST_CODE_SELECT_TOKEN);
         try {
-            this.bridge.saveCall(call);
-            this.callBackId = call.getCallbackId();
-            call.setKeepAlive(true);
-            Log.i(TAG, "selectToken --- 2");
-            this.tapAndPay.requestSelectToken(bridge.getActivity(), tokenReferenceId, getTSP(tsp), REQUEST_CODE_ACTION_TOKEN);
+            PluginLog.i("requestSelectToken launching, launch={}", launch);
+            this.tapAndPay.requestSelectToken(bridge.getActivity(), tokenReferenceId, network.tokenServiceProvider, REQUEST_CODE_SELECT_TOKEN);
         } catch (Exception e) {
+            discardPendingCall(call, launch, null);
             call.reject(e.getMessage());
         }
     }
 
     public void requestDeleteToken(PluginCall call) {
-        Log.i(TAG, "removeToken --- 1");
         String tokenReferenceId = call.getString("tokenReferenceId");
         if (tokenReferenceId == null) {
             call.reject("No tokenReferenceId found");
@@ -505,40 +1677,26 @@ public class GooglePay {
             call.reject("No tsp found");
             return;
         }
+        final CardNetwork network = CardNetwork.fromName(tsp);
+        if (network == null) {
+            rejectUnsupportedNetwork(call, tsp);
+            return;
+        }
+        long launch = savePendingCall(call, REQUEST_CODE_DELETE_TOKEN);
         try {
-            this.bridge.saveCall(call);
-            this.callBackId = call.getCallbackId();
-            call.setKeepAlive(true);
-            Log.i(TAG, "removeToken --- 2");
-            this.tapAndPay.requestDeleteToken(bridge.getActivity(), tokenReferenceId, getTSP(tsp), REQUEST_CODE_ACTION_TOKEN);
+            PluginLog.i("requestDeleteToken launching, launch={}", launch);
+            this.tapAndPay.requestDeleteToken(bridge.getActivity(), tokenReferenceId, network.tokenServiceProvider, REQUEST_CODE_DELETE_TOKEN);
         } catch (Exception e) {
+            discardPendingCall(call, launch, null);
             call.reject(e.getMessage());
         }
     }
 
     public void isGPayDefaultNFCApp(PluginCall call) {
         try {
-            NfcManager nfcManager = (NfcManager) this.bridge.getContext().getSystemService(Context.NFC_SERVICE);
-            NfcAdapter adapter = nfcManager.getDefaultAdapter();
-            if (adapter != null) {
-                JSObject result = new JSObject();
-                if (adapter.isEnabled()) {
-                    CardEmulation emulation = CardEmulation.getInstance(adapter);
-                    boolean isDefault = emulation.isDefaultServiceForCategory(
-                        new ComponentName(
-                            GoogleApiAvailability.GOOGLE_PLAY_SERVICES_PACKAGE,
-                            "com.google.android.gms.tapandpay.hce.service.TpHceService"
-                        ),
-                        CardEmulation.CATEGORY_PAYMENT
-                    );
-                    result.put("isDefault", isDefault);
-                    result.put("isNFCOn", true);
-                    call.resolve(result);
-                } else {
-                    result.put("isDefault", false);
-                    result.put("isNFCOn", false);
-                    call.resolve(result);
-                }
+            JSObject result = this.nfcStateMonitor.get();
+            if (result != null) {
+                call.resolve(result);
             } else {
                 call.reject("NFC is not supported", "NFC_SERVICE_NOT_SUPPORTED");
             }
@@ -548,6 +1706,7 @@ public class GooglePay {
     }
 
     public void setGPayAsDefaultNFCApp(PluginCall call) {
+        long launch = savePendingCall(call, REQUEST_CODE_DEFAULT_NFC);
         try {
             Intent intent = new Intent(CardEmulation.ACTION_CHANGE_DEFAULT);
             intent.putExtra(CardEmulation.EXTRA_CATEGORY, CardEmulation.CATEGORY_PAYMENT);
@@ -556,63 +1715,356 @@ public class GooglePay {
                 new ComponentName("com.google.android.gms", "com.google.android.gms.tapandpay.hce.service.TpHceService")
             );
 
-            this.bridge.saveCall(call);
-            this.callBackId = call.getCallbackId();
-            call.setKeepAlive(true);
-            ActivityResultLauncher<Intent> launcher =
-                this.bridge.registerForActivityResult(
-                        new ActivityResultContracts.StartActivityForResult(),
-                        result -> {
-                            // Handle the result here
-                            if (result.getResultCode() == Activity.RESULT_OK) {
-                                // Success, do something
-                                JSObject ret = new JSObject();
-                                ret.put("isDefault", true);
-                                call.resolve(ret);
-                            } else {
-                                // Failure, handle error
-                                call.reject("Default payment set cancelled", ErrorCodeReference.SET_DEFAULT_PAYMENTS_ERROR.getError());
-                            }
-                        }
-                    );
-
-            launcher.launch(intent);
+            this.defaultNfcLauncher.launch(intent);
         } catch (Exception e) {
+            discardPendingCall(call, launch, ErrorCodeReference.SET_DEFAULT_PAYMENTS_ERROR);
             call.reject(e.getMessage());
         }
     }
 
     public void registerDataChangedListener(PluginCall call) {
-        try {
-            this.tapAndPay.registerDataChangedListener(() -> {
-                    Log.i(TAG, call.toString());
-                    JSObject result = new JSObject();
-                    result.put("value", "OK");
-                    assert this.dataChangeListener != null;
-                    this.dataChangeCallBackId = call.getCallbackId();
-                    call.setKeepAlive(true);
-                    this.dataChangeListener.onDateChanged("registerDataChangedListener", result, true);
-                });
-        } catch (Exception e) {
-            call.reject(e.getMessage());
+        if (!this.dataChangeSubscribed) {
+            this.dataChangeSubscribed = true;
+            // Seed the diff baseline from the current list so the first event only reports changes made from now on
+            fetchTokens(false, IpcScheduler.Priority.BACKGROUND).addOnSuccessListener(this.resultExecutor, this.tokenStateTracker::reset);
         }
+        JSObject result = new JSObject();
+        result.put("value", "OK");
+        call.resolve(result);
     }
 
-    private int getCardNetwork(String tsp) {
-        return switch (tsp) {
-            case "VISA" -> TapAndPay.CARD_NETWORK_VISA;
-            case "MASTERCARD" -> TapAndPay.CARD_NETWORK_MASTERCARD;
-            case "MIR" -> TapAndPay.CARD_NETWORK_MIR;
-            default -> 0;
-        };
+    /**
+     * The wallet that data queried now belongs to, captured before the query so a later account switch cannot relabel it.
+     */
+    @Nullable
+    private String persistedWalletId() {
+        return this.walletStateStore != null ? this.walletStateStore.getActiveWalletId() : null;
     }
 
-    private int getTSP(String tsp) {
-        return switch (tsp) {
-            case "VISA" -> TapAndPay.TOKEN_PROVIDER_VISA;
-            case "MASTERCARD" -> TapAndPay.TOKEN_PROVIDER_MASTERCARD;
-            case "MIR" -> TapAndPay.TOKEN_PROVIDER_MIR;
-            default -> 0;
-        };
+    private void resolveOnMain(PluginCall call, JSObject result) {
+        this.bridge.executeOnMainThread(() -> call.resolve(result));
+    }
+
+    private void rejectUnsupportedNetwork(PluginCall call, String tsp) {
+        call.reject("Unsupported tsp " + tsp, ErrorCodeReference.UNSUPPORTED_NETWORK_ERROR.getError());
+    }
+
+    private void rejectOnMain(PluginCall call, String message) {
+        this.bridge.executeOnMainThread(() -> call.reject(message));
+    }
+
+    private void rejectOnMain(PluginCall call, String message, String code) {
+        this.bridge.executeOnMainThread(() -> call.reject(message, code));
+    }
+
+    private long savePendingCall(PluginCall call, int requestCode) {
+        this.bridge.saveCall(call);
+        call.setKeepAlive(true);
+        long launch = this.pendingCalls.register(requestCode, call.getCallbackId());
+        updateBackgroundHold();
+        this.trace.record(activityName(requestCode), "launch", requestCode, TraceBuffer.NONE, 0, null, launch);
+        return launch;
+    }
+
+    private void discardPendingCall(PluginCall call, long launch, @Nullable ErrorCodeReference error) {
+        PendingCallRegistry.PendingCall pending = this.pendingCalls.remove(launch);
+        updateBackgroundHold();
+        wipePendingOpc(launch);
+        if (pending != null && this.trace.isEnabled()) {
+            this.trace.record(
+                    activityName(pending.requestCode),
+                    "launchFailed",
+                    pending.requestCode,
+                    TraceBuffer.NONE,
+                    (PluginMetrics.now() - pending.launchedAt) / 1000,
+                    error != null ? error.getError() : null,
+                    launch
+                );
+        }
+        this.bridge.releaseCall(call);
+        call.setKeepAlive(false);
+    }
+
+    private void traceRejected(String method, ErrorCodeReference error) {
+        if (this.trace.isEnabled()) {
+            this.trace.record(method, "rejected", TraceBuffer.NONE, TraceBuffer.NONE, 0, error.getError(), 0);
+        }
+    }
+
+    /**
+     * Background queries wait while the user is in a Google Pay screen, at most for maxBackgroundHold in case its result is lost.
+     */
+    private void updateBackgroundHold() {
+        this.ipc.setBackgroundHeld(this.pendingCalls.size() > 0 || this.batchLaunched);
+    }
+
+    private Task<String> environmentTask(IpcScheduler.Priority priority) {
+        return query("getEnvironment", priority, this.tapAndPay::getEnvironment);
+    }
+
+    private Task<String> walletIdTask(IpcScheduler.Priority priority) {
+        return query("getActiveWalletId", priority, this.tapAndPay::getActiveWalletId);
+    }
+
+    private Task<String> hardwareIdTask() {
+        return query("getStableHardwareId", IpcScheduler.Priority.INTERACTIVE, this.tapAndPay::getStableHardwareId);
+    }
+
+    /**
+     * A coalesced query whose key is also its operation name.
+     */
+    private <T> Task<T> query(String operation, IpcScheduler.Priority priority, SingleFlight.TaskFactory<T> factory) {
+        if (priority == IpcScheduler.Priority.INTERACTIVE) {
+            // An interactive caller joining a queued background query must not wait behind the refresh
+            this.ipc.promote(operation);
+        }
+        return this.singleFlight.run(operation, () -> guarded(operation, operation, priority, factory));
+    }
+
+    /**
+     * Queues a TapAndPay query by priority and runs it under the deadline, retry and breaker policy, timing every attempt.
+     */
+    private <T> Task<T> guarded(
+        String operation,
+        @Nullable String key,
+        IpcScheduler.Priority priority,
+        SingleFlight.TaskFactory<T> factory
+    ) {
+        return this.ipc.submit(priority, operation, key, () -> this.callGuard.call(operation, () -> timed(operation, factory.start())));
+    }
+
+    /**
+     * Keys carry the cache generation, so nobody joins a query that started before the last data change.
+     */
+    private static String tokenStateKey(int tsp, String tokenReferenceId, long generation) {
+        return "getTokenStatus:" + tsp + ":" + tokenReferenceId + "@" + generation;
+    }
+
+    private static String tokensKey(long generation) {
+        return "listTokens@" + generation;
+    }
+
+    /**
+     * Records how long the TapAndPay task takes until it completes.
+     */
+    private <T> Task<T> timed(String operation, Task<T> task) {
+        final long start = PluginMetrics.now();
+        task.addOnCompleteListener(
+            this.resultExecutor,
+            completed -> {
+                this.metrics.record(operation + ".task", start, completed.isSuccessful());
+                if (this.trace.isEnabled()) {
+                    this.trace.record(
+                            operation,
+                            "task",
+                            TraceBuffer.NONE,
+                            TraceBuffer.NONE,
+                            (PluginMetrics.now() - start) / 1000,
+                            completed.isSuccessful() ? null : taskErrorCode(completed.getException()),
+                            0
+                        );
+                }
+            }
+        );
+        return task;
+    }
+
+    @Nullable
+    private static String taskErrorCode(@Nullable Exception exception) {
+        if (exception instanceof ApiException apiException) {
+            return String.valueOf(apiException.getStatusCode());
+        }
+        return exception != null ? exception.getClass().getSimpleName() : null;
+    }
+
+    private Task<Integer> fetchTokenState(int tsp, String tokenReferenceId, boolean bypassCache, IpcScheduler.Priority priority) {
+        if (!bypassCache) {
+            Integer cached = this.tokenStatusCache.getTokenState(tsp, tokenReferenceId);
+            if (cached != null) {
+                return Tasks.forResult(cached);
+            }
+        }
+        final long generation = this.tokenStatusCache.generation();
+        String key = tokenStateKey(tsp, tokenReferenceId, generation);
+        if (priority == IpcScheduler.Priority.INTERACTIVE) {
+            this.ipc.promote(key);
+        }
+        return this.singleFlight.run(
+                key,
+                () ->
+                    guarded("getTokenStatus", key, priority, () -> this.tapAndPay.getTokenState(tsp, tokenReferenceId))
+                        .onSuccessTask(this.resultExecutor, tokenState -> {
+                            this.tokenStatusCache.putTokenState(tsp, tokenReferenceId, tokenState, generation);
+                            return Tasks.forResult(tokenState);
+                        })
+            );
+    }
+
+    private Task<List<WalletToken>> fetchTokens(boolean bypassCache, IpcScheduler.Priority priority) {
+        if (!bypassCache) {
+            List<WalletToken> cached = this.tokenStatusCache.getTokens();
+            if (cached != null) {
+                return Tasks.forResult(cached);
+            }
+        }
+        final long generation = this.tokenStatusCache.generation();
+        String key = tokensKey(generation);
+        if (priority == IpcScheduler.Priority.INTERACTIVE) {
+            this.ipc.promote(key);
+        }
+        return this.singleFlight.run(
+                key,
+                () ->
+                    guarded("listTokens", key, priority, this.tapAndPay::listTokens)
+                        .onSuccessTask(this.resultExecutor, tokens -> {
+                            if (this.tokenStatusCache.putTokens(tokens, generation)) {
+                                this.tokenizedIndex.rebuild(tokens);
+                            }
+                            return Tasks.forResult(tokens);
+                        })
+            );
+    }
+
+    private Task<Boolean> isTokenizedTask(CardNetwork network, String lastDigits, IpcScheduler.Priority priority) {
+        return guarded(
+            "isTokenized",
+            null,
+            priority,
+            () -> this.tapAndPay.isTokenized(network.network, network.tokenServiceProvider, lastDigits)
+        );
+    }
+
+    /**
+     * Validates the address and builds it in one pass, failing with IllegalArgumentException on the first bad field.
+     */
+    static UserAddress buildUserAddress(JSONObject address) {
+        String countryCode = addressField(address, "countryCode", true);
+        if (countryCode.length() != 2) {
+            throw new IllegalArgumentException("address.countryCode must be an ISO 3166-1 alpha-2 code");
+        }
+        return UserAddress
+            .newBuilder()
+            .setName(addressField(address, "name", true))
+            .setAddress1(addressField(address, "address1", true))
+            .setAddress2(addressField(address, "address2", false))
+            .setLocality(addressField(address, "locality", true))
+            .setAdministrativeArea(addressField(address, "administrativeArea", true))
+            .setCountryCode(countryCode)
+            .setPostalCode(addressField(address, "postalCode", true))
+            .setPhoneNumber(addressField(address, "phoneNumber", true))
+            .build();
+    }
+
+    private static String addressField(JSONObject address, String field, boolean required) {
+        if (address.isNull(field)) {
+            if (required) {
+                throw new IllegalArgumentException("No address." + field + " found");
+            }
+            return "";
+        }
+        return address.optString(field);
+    }
+
+    /**
+     * Builds the bridge payload of a token list, static so it can be measured apart from the plugin.
+     */
+    static JSArray encodeTokens(List<WalletToken> tokens, boolean detailed) {
+        JSArray result = new JSArray();
+        for (WalletToken token : tokens) {
+            if (PluginLog.isDebugEnabled()) {
+                PluginLog.d("Found token with ID: {}", PluginLog.redact(token.tokenReferenceId));
+            }
+            if (detailed) {
+                result.put(walletTokenToJSObject(token));
+            } else {
+                result.put(token.tokenReferenceId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A detailed listTokens entry: the TokenInfo fields WalletToken carries, plus the state's TokenStatusReference name.
+     */
+    static JSObject walletTokenToJSObject(WalletToken token) {
+        JSObject result = new JSObject();
+        result.put("tokenReferenceId", token.tokenReferenceId);
+        result.put("issuerName", token.issuerName);
+        result.put("lastDigits", token.lastDigits);
+        result.put("network", token.network);
+        result.put("tokenServiceProvider", token.tokenServiceProvider);
+        result.put("state", token.state);
+        result.put("code", GooglePay.TokenStatusReference.getName(token.state));
+        result.put("isDefault", token.isDefault);
+        return result;
+    }
+
+    private JSObject snapshotField(Task<?> task, String errorCode) {
+        JSObject field = new JSObject();
+        if (task.isSuccessful()) {
+            field.put("value", task.getResult());
+            return field;
+        }
+        Exception exception = task.getException();
+        if (exception instanceof ApiException apiException) {
+            if (apiException.getStatusCode() == TAP_AND_PAY_NO_ACTIVE_WALLET) {
+                field.put("error", snapshotError(apiException.getMessage(), "NO_ACTIVE_WALLET"));
+            } else {
+                field.put("error", snapshotError(apiException.getMessage(), String.valueOf(apiException.getStatusCode())));
+            }
+        } else {
+            field.put("error", snapshotError(exception != null ? exception.getMessage() : errorCode, errorCode));
+        }
+        return field;
+    }
+
+    private JSObject snapshotError(String message, String code) {
+        JSObject error = new JSObject();
+        error.put("message", message);
+        error.put("code", code);
+        return error;
+    }
+
+    private JSObject tokenStatusError(@Nullable Exception exception) {
+        JSObject error = new JSObject();
+        if (exception instanceof ApiException apiException) {
+            error.put("message", apiException.getMessage());
+            if (apiException.getStatusCode() == TAP_AND_PAY_TOKEN_NOT_FOUND) {
+                error.put("code", "TAP_AND_PAY_TOKEN_NOT_FOUND");
+            } else {
+                error.put("code", String.valueOf(apiException.getStatusCode()));
+            }
+        } else if (exception instanceof CardNetwork.UnsupportedException) {
+            error.put("message", exception.getMessage());
+            error.put("code", ErrorCodeReference.UNSUPPORTED_NETWORK_ERROR.getError());
+        } else if (exception instanceof IllegalArgumentException) {
+            error.put("message", exception.getMessage());
+            error.put("code", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+        } else if (exception instanceof CancellationException) {
+            error.put("message", exception.getMessage());
+            error.put("code", ErrorCodeReference.CALL_CANCELED.getError());
+        } else {
+            error.put("message", "TOKEN_NOT_FOUND");
+            error.put("code", "TAP_AND_PAY_TOKEN_NOT_FOUND");
+        }
+        return error;
+    }
+
+    private JSObject isTokenizedError(@Nullable Exception exception) {
+        JSObject error = new JSObject();
+        if (exception instanceof CardNetwork.UnsupportedException) {
+            error.put("message", exception.getMessage());
+            error.put("code", ErrorCodeReference.UNSUPPORTED_NETWORK_ERROR.getError());
+        } else if (exception instanceof IllegalArgumentException) {
+            error.put("message", exception.getMessage());
+            error.put("code", ErrorCodeReference.MISSING_DATA_ERROR.getError());
+        } else if (exception instanceof CancellationException) {
+            error.put("message", exception.getMessage());
+            error.put("code", ErrorCodeReference.CALL_CANCELED.getError());
+        } else {
+            error.put("message", exception != null ? exception.getMessage() : "IS_TOKENIZED_ERROR");
+            error.put("code", ErrorCodeReference.IS_TOKENIZED_ERROR.getError());
+        }
+        return error;
     }
 }
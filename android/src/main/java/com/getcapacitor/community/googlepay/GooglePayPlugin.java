@@ -10,20 +10,46 @@ import com.getcapacitor.annotation.CapacitorPlugin;
 @CapacitorPlugin(
     name = "GooglePay",
     requestCodes = {
-        GooglePayPlugin.REQUEST_CODE_PUSH_TOKENIZE, GooglePayPlugin.REQUEST_CREATE_WALLET, GooglePayPlugin.REQUEST_CODE_DELETE_TOKEN
+        GooglePay.REQUEST_CODE_PUSH_TOKENIZE,
+        GooglePay.REQUEST_CODE_CREATE_WALLET,
+        GooglePay.REQUEST_CODE_ACTION_TOKEN,
+        GooglePay.REQUEST_CODE_SELECT_TOKEN,
+        GooglePay.REQUEST_CODE_DELETE_TOKEN,
+        GooglePay.REQUEST_CODE_PUSH_TOKENIZE_BATCH
     }
 )
 public class GooglePayPlugin extends Plugin {
 
+    private interface Handler {
+        void handle(PluginCall call);
+    }
+
     private GooglePay implementation;
-    protected static final int REQUEST_CODE_PUSH_TOKENIZE = 3;
-    protected static final int REQUEST_CREATE_WALLET = 4;
-    protected static final int REQUEST_CODE_DELETE_TOKEN = 5;
+    private PluginMetrics metrics;
 
     @Override
     public void load() {
-        implementation = new GooglePay(this.bridge);
+        implementation = new GooglePay(this.bridge, getConfig());
         implementation.setDataChangeListener(this::onDataChangeEvent);
+        metrics = implementation.getMetrics();
+    }
+
+    @Override
+    protected void handleOnPause() {
+        super.handleOnPause();
+        implementation.onPause();
+    }
+
+    @Override
+    protected void handleOnResume() {
+        super.handleOnResume();
+        implementation.onResume();
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        super.handleOnDestroy();
+        implementation.onDestroy();
     }
 
     @Override
@@ -34,72 +60,157 @@ public class GooglePayPlugin extends Plugin {
 
     @PluginMethod
     public void getEnvironment(PluginCall call) {
-        implementation.getEnvironment(call);
+        dispatch("getEnvironment", call, implementation::getEnvironment);
     }
 
     @PluginMethod
     public void getStableHardwareId(PluginCall call) {
-        implementation.getStableHardwareId(call);
+        dispatch("getStableHardwareId", call, implementation::getStableHardwareId);
     }
 
     @PluginMethod
     public void getActiveWalletID(PluginCall call) {
-        implementation.getActiveWalletID(call);
+        dispatch("getActiveWalletID", call, implementation::getActiveWalletID);
     }
 
     @PluginMethod
     public void createWallet(PluginCall call) {
-        implementation.createWallet(call);
+        dispatch("createWallet", call, implementation::createWallet);
     }
 
     @PluginMethod
     public void getTokenStatus(PluginCall call) {
-        implementation.getTokenStatus(call);
+        dispatch("getTokenStatus", call, implementation::getTokenStatus);
+    }
+
+    @PluginMethod
+    public void watchTokenStatus(PluginCall call) {
+        dispatch("watchTokenStatus", call, implementation::watchTokenStatus);
+    }
+
+    @PluginMethod
+    public void clearTokenStatusWatch(PluginCall call) {
+        dispatch("clearTokenStatusWatch", call, implementation::clearTokenStatusWatch);
+    }
+
+    @PluginMethod
+    public void getTokenStatuses(PluginCall call) {
+        dispatch("getTokenStatuses", call, implementation::getTokenStatuses);
     }
 
     @PluginMethod
     public void listTokens(PluginCall call) {
-        implementation.listTokens(call);
+        dispatch("listTokens", call, implementation::listTokens);
+    }
+
+    @PluginMethod
+    public void getWalletSnapshot(PluginCall call) {
+        dispatch("getWalletSnapshot", call, implementation::getWalletSnapshot);
+    }
+
+    @PluginMethod
+    public void getCachedWalletState(PluginCall call) {
+        dispatch("getCachedWalletState", call, implementation::getCachedWalletState);
+    }
+
+    @PluginMethod
+    public void getCacheStats(PluginCall call) {
+        dispatch("getCacheStats", call, implementation::getCacheStats);
     }
 
     @PluginMethod
     public void isTokenized(PluginCall call) {
-        implementation.isTokenized(call);
+        dispatch("isTokenized", call, implementation::isTokenized);
+    }
+
+    @PluginMethod
+    public void isTokenizedMany(PluginCall call) {
+        dispatch("isTokenizedMany", call, implementation::isTokenizedMany);
     }
 
     @PluginMethod
     public void pushProvision(PluginCall call) {
-        implementation.pushProvision(call);
+        dispatch("pushProvision", call, implementation::pushProvision);
+    }
+
+    @PluginMethod
+    public void pushProvisionBatch(PluginCall call) {
+        dispatch("pushProvisionBatch", call, implementation::pushProvisionBatch);
+    }
+
+    @PluginMethod
+    public void resumeProvisionBatch(PluginCall call) {
+        dispatch("resumeProvisionBatch", call, implementation::resumeProvisionBatch);
+    }
+
+    @PluginMethod
+    public void getPendingProvisionBatch(PluginCall call) {
+        dispatch("getPendingProvisionBatch", call, implementation::getPendingProvisionBatch);
+    }
+
+    @PluginMethod
+    public void clearProvisionBatch(PluginCall call) {
+        dispatch("clearProvisionBatch", call, implementation::clearProvisionBatch);
     }
 
     @PluginMethod
     public void resumeTokenization(PluginCall call) {
-        implementation.resumeTokenization(call);
+        dispatch("resumeTokenization", call, implementation::resumeTokenization);
     }
 
     @PluginMethod
     public void requestSelectToken(PluginCall call) {
-        implementation.requestSelectToken(call);
+        dispatch("requestSelectToken", call, implementation::requestSelectToken);
     }
 
     @PluginMethod
     public void requestDeleteToken(PluginCall call) {
-        implementation.requestDeleteToken(call);
+        dispatch("requestDeleteToken", call, implementation::requestDeleteToken);
     }
 
     @PluginMethod
     public void isGPayDefaultNFCApp(PluginCall call) {
-        implementation.isGPayDefaultNFCApp(call);
+        dispatch("isGPayDefaultNFCApp", call, implementation::isGPayDefaultNFCApp);
     }
 
     @PluginMethod
     public void setGPayAsDefaultNFCApp(PluginCall call) {
-        implementation.setGPayAsDefaultNFCApp(call);
+        dispatch("setGPayAsDefaultNFCApp", call, implementation::setGPayAsDefaultNFCApp);
     }
 
     @PluginMethod
     public void registerDataChangedListener(PluginCall call) {
-        implementation.registerDataChangedListener(call);
+        dispatch("registerDataChangedListener", call, implementation::registerDataChangedListener);
+    }
+
+    @PluginMethod
+    public void getMetrics(PluginCall call) {
+        implementation.getMetrics(call);
+    }
+
+    @PluginMethod
+    public void resetMetrics(PluginCall call) {
+        implementation.resetMetrics(call);
+    }
+
+    @PluginMethod
+    public void exportTrace(PluginCall call) {
+        implementation.exportTrace(call);
+    }
+
+    /**
+     * Runs a plugin method and records `<method>.dispatch`, the time until it handed its work off.
+     * The wait for a query slot and the query itself are recorded where they happen.
+     */
+    private void dispatch(String method, PluginCall call, Handler handler) {
+        long start = PluginMetrics.now();
+        try {
+            handler.handle(call);
+        } catch (RuntimeException e) {
+            metrics.record(method + ".dispatch", start, false);
+            throw e;
+        }
+        metrics.record(method + ".dispatch", start, true);
     }
 
     private void onDataChangeEvent(String event, JSObject result, Boolean bool) {
@@ -0,0 +1,257 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the TapAndPay queries in flight and starts interactive ones ahead of background refreshes.
+ * One slot is kept for interactive calls, and background calls wait while an activity flow is open, at most
+ * for the maximum hold, so a lost activity result cannot stall watches and refreshes for good.
+ * Jobs carry the SingleFlight key of their query, so a queued background query can be promoted when an
+ * interactive caller joins it, or canceled when nobody needs it anymore.
+ * The wait for a slot is recorded as `<operation>.queued` when the query actually starts.
+ */
+class IpcScheduler {
+
+    enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private static final class Job<T> {
+
+        final String operation;
+
+        @Nullable
+        final String key;
+
+        final SingleFlight.TaskFactory<T> factory;
+        final TaskCompletionSource<T> result = new TaskCompletionSource<>();
+        final long submittedAt = PluginMetrics.now();
+
+        Job(String operation, @Nullable String key, SingleFlight.TaskFactory<T> factory) {
+            this.operation = operation;
+            this.key = key;
+            this.factory = factory;
+        }
+    }
+
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final PluginMetrics metrics;
+    private final int maxInFlight;
+    private final long maxHoldMs;
+    private final ArrayDeque<Job<?>> interactive = new ArrayDeque<>();
+    private final ArrayDeque<Job<?>> background = new ArrayDeque<>();
+    private int inFlight;
+    private int backgroundInFlight;
+    private boolean backgroundHeld;
+    private boolean holdExpired;
+
+    @Nullable
+    private ScheduledFuture<?> holdTimer;
+
+    private long promoted;
+    private long canceled;
+
+    /**
+     * @param maxHoldMs longest time background queries are held back in one go, 0 means no limit
+     */
+    IpcScheduler(Executor executor, ScheduledExecutorService scheduler, PluginMetrics metrics, int maxInFlight, long maxHoldMs) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxHoldMs = Math.max(0, maxHoldMs);
+    }
+
+    /**
+     * Queues a query, it starts as soon as a slot of its class is free.
+     */
+    <T> Task<T> submit(Priority priority, String operation, @Nullable String key, SingleFlight.TaskFactory<T> factory) {
+        Job<T> job = new Job<>(operation, key, factory);
+        synchronized (this) {
+            (priority == Priority.INTERACTIVE ? interactive : background).addLast(job);
+        }
+        drain();
+        return job.result.getTask();
+    }
+
+    /**
+     * Moves a queued background query to the interactive queue, returns false when none is queued.
+     */
+    boolean promote(String key) {
+        synchronized (this) {
+            Job<?> job = removeQueued(background, key);
+            if (job == null) {
+                return false;
+            }
+            interactive.addLast(job);
+            promoted++;
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * Drops a queued background query, its callers fail with a CancellationException. Started queries run to the end.
+     */
+    boolean cancel(String key) {
+        Job<?> job;
+        synchronized (this) {
+            job = removeQueued(background, key);
+            if (job == null) {
+                return false;
+            }
+            canceled++;
+        }
+        job.result.trySetException(new CancellationException(key + " is no longer needed"));
+        return true;
+    }
+
+    void cancelAll() {
+        List<Job<?>> dropped;
+        synchronized (this) {
+            dropped = new ArrayList<>(interactive.size() + background.size());
+            dropped.addAll(interactive);
+            dropped.addAll(background);
+            interactive.clear();
+            background.clear();
+            canceled += dropped.size();
+        }
+        for (Job<?> job : dropped) {
+            job.result.trySetException(new CancellationException("Plugin destroyed"));
+        }
+    }
+
+    /**
+     * Holds background queries back, e.g. while the user is in a Google Pay screen. A hold that outlasts the
+     * maximum hold lapses and stays lapsed until it is released.
+     */
+    void setBackgroundHeld(boolean held) {
+        synchronized (this) {
+            if (backgroundHeld == held) {
+                return;
+            }
+            backgroundHeld = held;
+            if (holdTimer != null) {
+                holdTimer.cancel(false);
+                holdTimer = null;
+            }
+            if (held) {
+                holdExpired = false;
+                if (maxHoldMs > 0) {
+                    holdTimer = scheduler.schedule(this::expireHold, maxHoldMs, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        if (!held) {
+            drain();
+        }
+    }
+
+    private void expireHold() {
+        synchronized (this) {
+            if (!backgroundHeld || holdExpired) {
+                return;
+            }
+            holdExpired = true;
+            holdTimer = null;
+        }
+        metrics.increment("ipc.holdExpired");
+        PluginLog.w("Background queries held for {} ms, resuming them", maxHoldMs);
+        drain();
+    }
+
+    synchronized JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("maxInFlight", maxInFlight);
+        result.put("inFlight", inFlight);
+        result.put("interactiveQueued", interactive.size());
+        result.put("backgroundQueued", background.size());
+        result.put("backgroundHeld", backgroundHeld && !holdExpired);
+        result.put("promoted", promoted);
+        result.put("canceled", canceled);
+        return result;
+    }
+
+    private void drain() {
+        while (true) {
+            Job<?> job;
+            boolean isBackground;
+            synchronized (this) {
+                if (inFlight >= maxInFlight) {
+                    return;
+                }
+                job = interactive.pollFirst();
+                isBackground = job == null;
+                if (isBackground) {
+                    // With more than one slot, the last one is left to interactive calls
+                    if ((backgroundHeld && !holdExpired) || backgroundInFlight >= Math.max(1, maxInFlight - 1)) {
+                        return;
+                    }
+                    job = background.pollFirst();
+                    if (job == null) {
+                        return;
+                    }
+                    backgroundInFlight++;
+                }
+                inFlight++;
+            }
+            start(job, isBackground);
+        }
+    }
+
+    private <T> void start(Job<T> job, boolean isBackground) {
+        metrics.record(job.operation + ".queued", job.submittedAt, true);
+        Task<T> task;
+        try {
+            task = job.factory.start();
+        } catch (Exception e) {
+            task = Tasks.forException(e);
+        }
+        task.addOnCompleteListener(
+            executor,
+            completed -> {
+                synchronized (this) {
+                    inFlight--;
+                    if (isBackground) {
+                        backgroundInFlight--;
+                    }
+                }
+                if (completed.isSuccessful()) {
+                    job.result.trySetResult(completed.getResult());
+                } else {
+                    Exception exception = completed.getException();
+                    job.result.trySetException(exception != null ? exception : new CancellationException(job.key));
+                }
+                drain();
+            }
+        );
+    }
+
+    @Nullable
+    private static Job<?> removeQueued(ArrayDeque<Job<?>> queue, String key) {
+        Iterator<Job<?>> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Job<?> job = iterator.next();
+            if (key.equals(job.key)) {
+                iterator.remove();
+                return job;
+            }
+        }
+        return null;
+    }
+}
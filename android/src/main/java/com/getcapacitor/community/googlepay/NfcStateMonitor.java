@@ -0,0 +1,148 @@
+package com.getcapacitor.community.googlepay;
+
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.nfc.NfcAdapter;
+import android.nfc.NfcManager;
+import android.nfc.cardemulation.CardEmulation;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import com.getcapacitor.JSObject;
+import com.google.android.gms.common.GoogleApiAvailability;
+
+/**
+ * Keeps {isDefault, isNFCOn} in memory. The system handles are looked up once, and the state is only
+ * re-checked when the adapter turns on or off or the app comes back to the foreground.
+ */
+class NfcStateMonitor {
+
+    interface ChangeListener {
+        void onNfcStateChanged(JSObject state);
+    }
+
+    private static final ComponentName HCE_SERVICE = new ComponentName(
+        GoogleApiAvailability.GOOGLE_PLAY_SERVICES_PACKAGE,
+        "com.google.android.gms.tapandpay.hce.service.TpHceService"
+    );
+
+    private final Context context;
+    private final ChangeListener listener;
+
+    private boolean resolved;
+
+    @Nullable
+    private NfcAdapter adapter;
+
+    @Nullable
+    private CardEmulation emulation;
+
+    @Nullable
+    private BroadcastReceiver receiver;
+
+    private boolean known;
+    private boolean isNFCOn;
+    private boolean isDefault;
+
+    NfcStateMonitor(Context context, ChangeListener listener) {
+        this.context = context.getApplicationContext();
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the cached state, reading it the first time. Null when the device has no NFC adapter.
+     */
+    @Nullable
+    synchronized JSObject get() {
+        if (!resolve()) {
+            return null;
+        }
+        if (!known) {
+            read();
+            startListening();
+        }
+        return toJSObject();
+    }
+
+    /**
+     * Re-checks the state and emits a change event when it differs, a no-op until the state was first asked for.
+     */
+    void refresh() {
+        JSObject change;
+        synchronized (this) {
+            if (!known) {
+                return;
+            }
+            boolean wasNFCOn = isNFCOn;
+            boolean wasDefault = isDefault;
+            read();
+            if (wasNFCOn == isNFCOn && wasDefault == isDefault) {
+                return;
+            }
+            change = toJSObject();
+        }
+        listener.onNfcStateChanged(change);
+    }
+
+    synchronized void stop() {
+        if (receiver != null) {
+            context.unregisterReceiver(receiver);
+            receiver = null;
+        }
+    }
+
+    private boolean resolve() {
+        if (!resolved) {
+            resolved = true;
+            NfcManager manager = (NfcManager) context.getSystemService(Context.NFC_SERVICE);
+            adapter = manager != null ? manager.getDefaultAdapter() : null;
+        }
+        return adapter != null;
+    }
+
+    private void read() {
+        isNFCOn = adapter.isEnabled();
+        if (isNFCOn) {
+            if (emulation == null) {
+                emulation = CardEmulation.getInstance(adapter);
+            }
+            isDefault = emulation.isDefaultServiceForCategory(HCE_SERVICE, CardEmulation.CATEGORY_PAYMENT);
+        } else {
+            isDefault = false;
+        }
+        known = true;
+    }
+
+    private void startListening() {
+        if (receiver != null) {
+            return;
+        }
+        receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                int state = intent.getIntExtra(NfcAdapter.EXTRA_ADAPTER_STATE, NfcAdapter.STATE_OFF);
+                // Transitional states are followed by their final one
+                if (state == NfcAdapter.STATE_ON || state == NfcAdapter.STATE_OFF) {
+                    refresh();
+                }
+            }
+        };
+        // Sent by the NFC service, so the receiver has to be exported. It is a protected broadcast that other
+        // apps cannot send, and RECEIVER_NOT_EXPORTED would add a permission the NFC service does not hold
+        ContextCompat.registerReceiver(
+            context,
+            receiver,
+            new IntentFilter(NfcAdapter.ACTION_ADAPTER_STATE_CHANGED),
+            ContextCompat.RECEIVER_EXPORTED
+        );
+    }
+
+    private JSObject toJSObject() {
+        JSObject result = new JSObject();
+        result.put("isDefault", isDefault);
+        result.put("isNFCOn", isNFCOn);
+        return result;
+    }
+}
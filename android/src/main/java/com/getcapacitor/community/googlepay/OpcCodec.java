@@ -0,0 +1,140 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Turns the opc string from the bridge into the bytes PushTokenizeRequest takes. Both encodings size the
+ * array in a first pass over the chars and fill it in a second, so the payload is copied exactly once.
+ */
+final class OpcCodec {
+
+    static final String UTF8 = "utf8";
+    static final String BASE64 = "base64";
+
+    private static final byte[] BASE64_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+        // URL-safe input decodes the same
+        BASE64_VALUES['-'] = 62;
+        BASE64_VALUES['_'] = 63;
+    }
+
+    private OpcCodec() {}
+
+    /**
+     * @param encoding {@link #UTF8} or {@link #BASE64}, null means UTF8
+     * @throws IllegalArgumentException for an unknown encoding or malformed base64
+     */
+    static byte[] decode(String opc, @Nullable String encoding) {
+        if (encoding == null || UTF8.equals(encoding)) {
+            return encodeUtf8(opc);
+        }
+        if (BASE64.equals(encoding)) {
+            return decodeBase64(opc);
+        }
+        throw new IllegalArgumentException("Unsupported opcEncoding " + encoding);
+    }
+
+    static void wipe(@Nullable byte[] opc) {
+        if (opc != null) {
+            Arrays.fill(opc, (byte) 0);
+        }
+    }
+
+    private static byte[] encodeUtf8(String value) {
+        int length = value.length();
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else {
+                // Unpaired surrogates become U+FFFD (EF BF BD) as on Android, a desktop JVM's getBytes writes '?' instead
+                size += 3;
+            }
+        }
+
+        byte[] result = new byte[size];
+        int out = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                result[out++] = (byte) c;
+            } else if (c < 0x800) {
+                result[out++] = (byte) (0xC0 | (c >> 6));
+                result[out++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                result[out++] = (byte) (0xF0 | (codePoint >> 18));
+                result[out++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                result[out++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                result[out++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                int codePoint = Character.isSurrogate(c) ? 0xFFFD : c;
+                result[out++] = (byte) (0xE0 | (codePoint >> 12));
+                result[out++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                result[out++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+        }
+        return result;
+    }
+
+    private static byte[] decodeBase64(String value) {
+        int length = value.length();
+        int digits = 0;
+        int padding = 0;
+        boolean paddingEnded = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '=') {
+                if (paddingEnded) {
+                    throw new IllegalArgumentException("Malformed base64 opc");
+                }
+                padding++;
+            } else if (c < 128 && BASE64_VALUES[c] >= 0) {
+                if (padding > 0) {
+                    throw new IllegalArgumentException("Malformed base64 opc");
+                }
+                digits++;
+            } else if (Character.isWhitespace(c)) {
+                // Trailing whitespace is fine, padding split by whitespace is not
+                paddingEnded = padding > 0;
+            } else {
+                throw new IllegalArgumentException("Malformed base64 opc");
+            }
+        }
+        // Padding is optional, but when present it must complete the last quantum exactly
+        if (digits % 4 == 1 || (padding > 0 && padding != (4 - digits % 4) % 4)) {
+            throw new IllegalArgumentException("Malformed base64 opc");
+        }
+
+        byte[] result = new byte[digits * 3 / 4];
+        int out = 0;
+        int bits = 0;
+        int buffered = 0;
+        for (int i = 0; i < length && out < result.length; i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || BASE64_VALUES[c] < 0) {
+                continue;
+            }
+            bits = ((bits << 6) | BASE64_VALUES[c]) & 0xFFFF;
+            buffered += 6;
+            if (buffered >= 8) {
+                buffered -= 8;
+                result[out++] = (byte) (bits >> buffered);
+            }
+        }
+        return result;
+    }
+}
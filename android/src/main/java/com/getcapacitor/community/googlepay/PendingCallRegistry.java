@@ -0,0 +1,91 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saved calls waiting for an activity result, keyed by request code and a unique per-launch token.
+ * Google Pay screens are modal, so results for one request code come back in launch order.
+ */
+class PendingCallRegistry {
+
+    static final class PendingCall {
+
+        final long token;
+        final int requestCode;
+        final String callbackId;
+        final long launchedAt;
+
+        PendingCall(long token, int requestCode, String callbackId) {
+            this.token = token;
+            this.requestCode = requestCode;
+            this.callbackId = callbackId;
+            this.launchedAt = PluginMetrics.now();
+        }
+    }
+
+    private final AtomicLong nextToken = new AtomicLong();
+    private final Map<Integer, Deque<PendingCall>> pending = new HashMap<>();
+
+    synchronized long register(int requestCode, String callbackId) {
+        long token = nextToken.incrementAndGet();
+        Deque<PendingCall> calls = pending.get(requestCode);
+        if (calls == null) {
+            calls = new ArrayDeque<>();
+            pending.put(requestCode, calls);
+        }
+        calls.addLast(new PendingCall(token, requestCode, callbackId));
+        return token;
+    }
+
+    /**
+     * Takes the oldest call launched with the given request code.
+     */
+    @Nullable
+    synchronized PendingCall take(int requestCode) {
+        Deque<PendingCall> calls = pending.get(requestCode);
+        return calls != null ? calls.pollFirst() : null;
+    }
+
+    @Nullable
+    synchronized PendingCall remove(long token) {
+        for (Deque<PendingCall> calls : pending.values()) {
+            Iterator<PendingCall> iterator = calls.iterator();
+            while (iterator.hasNext()) {
+                PendingCall call = iterator.next();
+                if (call.token == token) {
+                    iterator.remove();
+                    return call;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes and returns every pending call, oldest launch first per request code.
+     */
+    synchronized List<PendingCall> clear() {
+        List<PendingCall> calls = new ArrayList<>();
+        for (Deque<PendingCall> queued : pending.values()) {
+            calls.addAll(queued);
+        }
+        pending.clear();
+        return calls;
+    }
+
+    synchronized int size() {
+        int size = 0;
+        for (Deque<PendingCall> calls : pending.values()) {
+            size += calls.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,142 @@
+package com.getcapacitor.community.googlepay;
+
+import android.app.Activity;
+import android.content.Context;
+import com.google.android.gms.tapandpay.TapAndPay;
+import com.google.android.gms.tapandpay.TapAndPayClient;
+import com.google.android.gms.tapandpay.issuer.IsTokenizedRequest;
+import com.google.android.gms.tapandpay.issuer.PushTokenizeRequest;
+import com.google.android.gms.tapandpay.issuer.TokenInfo;
+import com.google.android.gms.tapandpay.issuer.UserAddress;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * TapAndPayBackend on top of the Play services TapAndPayClient. The client is bound to the application context,
+ * activity flows get the current Activity per call, so no Activity outlives its recreation through the plugin.
+ */
+class PlayServicesTapAndPayBackend implements TapAndPayBackend {
+
+    private final TapAndPayClient client;
+    private final Executor executor;
+    private final List<TapAndPay.DataChangedListener> listeners = new CopyOnWriteArrayList<>();
+
+    PlayServicesTapAndPayBackend(Context context, Executor executor) {
+        this.client = TapAndPay.getClient(context.getApplicationContext());
+        this.executor = executor;
+    }
+
+    @Override
+    public Task<String> getEnvironment() {
+        return client.getEnvironment();
+    }
+
+    @Override
+    public Task<String> getActiveWalletId() {
+        return client.getActiveWalletId();
+    }
+
+    @Override
+    public Task<String> getStableHardwareId() {
+        return client.getStableHardwareId();
+    }
+
+    @Override
+    public Task<Integer> getTokenState(int tsp, String tokenReferenceId) {
+        return client.getTokenStatus(tsp, tokenReferenceId).onSuccessTask(executor, status -> Tasks.forResult(status.getTokenState()));
+    }
+
+    @Override
+    public Task<List<WalletToken>> listTokens() {
+        return client
+            .listTokens()
+            .onSuccessTask(executor, tokens -> {
+                List<WalletToken> result = new ArrayList<>(tokens.size());
+                for (TokenInfo token : tokens) {
+                    result.add(
+                        new WalletToken(
+                            token.getIssuerTokenId(),
+                            token.getIssuerName(),
+                            token.getFpanLastFour(),
+                            token.getNetwork(),
+                            token.getTokenServiceProvider(),
+                            token.getTokenState(),
+                            token.getIsDefaultToken()
+                        )
+                    );
+                }
+                return Tasks.forResult(result);
+            });
+    }
+
+    @Override
+    public Task<Boolean> isTokenized(int network, int tsp, String lastDigits) {
+        IsTokenizedRequest request = new IsTokenizedRequest.Builder()
+            .setIdentifier(lastDigits)
+            .setNetwork(network)
+            .setTokenServiceProvider(tsp)
+            .build();
+        return client.isTokenized(request);
+    }
+
+    @Override
+    public void registerDataChangedListener(DataChangedListener listener) {
+        TapAndPay.DataChangedListener registered = listener::onDataChanged;
+        listeners.add(registered);
+        client.registerDataChangedListener(registered);
+    }
+
+    @Override
+    public void close() {
+        for (TapAndPay.DataChangedListener listener : listeners) {
+            client.removeDataChangedListener(listener);
+        }
+        listeners.clear();
+    }
+
+    @Override
+    public void createWallet(Activity activity, int requestCode) {
+        client.createWallet(activity, requestCode);
+    }
+
+    @Override
+    public void pushTokenize(
+        Activity activity,
+        byte[] opc,
+        int network,
+        int tsp,
+        String displayName,
+        String lastDigits,
+        UserAddress address,
+        int requestCode
+    ) {
+        PushTokenizeRequest request = new PushTokenizeRequest.Builder()
+            .setOpaquePaymentCard(opc)
+            .setNetwork(network)
+            .setTokenServiceProvider(tsp)
+            .setDisplayName(displayName)
+            .setLastDigits(lastDigits)
+            .setUserAddress(address)
+            .build();
+        client.pushTokenize(activity, request, requestCode);
+    }
+
+    @Override
+    public void tokenize(Activity activity, String tokenReferenceId, int tsp, String displayName, int network, int requestCode) {
+        client.tokenize(activity, tokenReferenceId, tsp, displayName, network, requestCode);
+    }
+
+    @Override
+    public void requestSelectToken(Activity activity, String tokenReferenceId, int tsp, int requestCode) {
+        client.requestSelectToken(activity, tokenReferenceId, tsp, requestCode);
+    }
+
+    @Override
+    public void requestDeleteToken(Activity activity, String tokenReferenceId, int tsp, int requestCode) {
+        client.requestDeleteToken(activity, tokenReferenceId, tsp, requestCode);
+    }
+}
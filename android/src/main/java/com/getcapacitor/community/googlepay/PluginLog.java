@@ -0,0 +1,129 @@
+package com.getcapacitor.community.googlepay;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import java.util.Locale;
+
+/**
+ * Logging facade of the plugin. Messages use {} placeholders and are only formatted once the level passes,
+ * fixed-arity overloads keep disabled calls free of varargs arrays. Release builds compile it out through
+ * BuildConfig.PLUGIN_LOGGING, and R8 drops the calls themselves (see proguard-rules.pro).
+ */
+final class PluginLog {
+
+    static final String TAG = "GooglePayPlugin";
+    static final int NONE = Log.ASSERT + 1;
+
+    private static volatile int level = Log.INFO;
+
+    private PluginLog() {}
+
+    /**
+     * Accepts verbose, debug, info, warn, error or none, anything else keeps the current level.
+     */
+    static void setLevel(@Nullable String name) {
+        if (name == null) {
+            return;
+        }
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "verbose" -> level = Log.VERBOSE;
+            case "debug" -> level = Log.DEBUG;
+            case "info" -> level = Log.INFO;
+            case "warn" -> level = Log.WARN;
+            case "error" -> level = Log.ERROR;
+            case "none" -> level = NONE;
+            default -> {}
+        }
+    }
+
+    static boolean isLoggable(int priority) {
+        return BuildConfig.PLUGIN_LOGGING && priority >= level;
+    }
+
+    static boolean isDebugEnabled() {
+        return isLoggable(Log.DEBUG);
+    }
+
+    static void d(String message) {
+        if (isLoggable(Log.DEBUG)) {
+            Log.d(TAG, message);
+        }
+    }
+
+    static void d(String pattern, @Nullable Object arg) {
+        if (isLoggable(Log.DEBUG)) {
+            Log.d(TAG, format(pattern, arg, null, null));
+        }
+    }
+
+    static void d(String pattern, @Nullable Object arg1, @Nullable Object arg2) {
+        if (isLoggable(Log.DEBUG)) {
+            Log.d(TAG, format(pattern, arg1, arg2, null));
+        }
+    }
+
+    static void d(String pattern, @Nullable Object arg1, @Nullable Object arg2, @Nullable Object arg3) {
+        if (isLoggable(Log.DEBUG)) {
+            Log.d(TAG, format(pattern, arg1, arg2, arg3));
+        }
+    }
+
+    static void i(String message) {
+        if (isLoggable(Log.INFO)) {
+            Log.i(TAG, message);
+        }
+    }
+
+    static void i(String pattern, @Nullable Object arg) {
+        if (isLoggable(Log.INFO)) {
+            Log.i(TAG, format(pattern, arg, null, null));
+        }
+    }
+
+    static void i(String pattern, @Nullable Object arg1, @Nullable Object arg2) {
+        if (isLoggable(Log.INFO)) {
+            Log.i(TAG, format(pattern, arg1, arg2, null));
+        }
+    }
+
+    static void w(String pattern, @Nullable Object arg) {
+        if (isLoggable(Log.WARN)) {
+            Log.w(TAG, format(pattern, arg, null, null));
+        }
+    }
+
+    static void w(String pattern, @Nullable Object arg1, @Nullable Object arg2) {
+        if (isLoggable(Log.WARN)) {
+            Log.w(TAG, format(pattern, arg1, arg2, null));
+        }
+    }
+
+    /**
+     * Masks an identifier (hardware ID, token reference, wallet ID) down to its last four characters.
+     * The opc is never logged, not even redacted.
+     */
+    static String redact(@Nullable String value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value.length() <= 4) {
+            return "****";
+        }
+        return "****" + value.substring(value.length() - 4);
+    }
+
+    private static String format(String pattern, @Nullable Object arg1, @Nullable Object arg2, @Nullable Object arg3) {
+        StringBuilder builder = new StringBuilder(pattern.length() + 32);
+        Object[] args = { arg1, arg2, arg3 };
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = pattern.indexOf("{}", start)) >= 0) {
+            builder.append(pattern, start, placeholder);
+            builder.append(argIndex < args.length ? String.valueOf(args[argIndex++]) : "{}");
+            start = placeholder + 2;
+        }
+        builder.append(pattern, start, pattern.length());
+        return builder.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package com.getcapacitor.community.googlepay;
+
+import com.getcapacitor.JSObject;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counters and latency histograms. Latencies land in power-of-two microsecond buckets,
+ * so percentiles are reported as the upper bound of the bucket they fall in.
+ */
+class PluginMetrics {
+
+    private static final int BUCKETS = 32;
+
+    private static final class Stat {
+
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong totalMicros = new AtomicLong();
+        final AtomicLong maxMicros = new AtomicLong();
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void record(long micros, boolean success) {
+            count.incrementAndGet();
+            if (!success) {
+                errors.incrementAndGet();
+            }
+            totalMicros.addAndGet(micros);
+            long max = maxMicros.get();
+            while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+                max = maxMicros.get();
+            }
+            buckets.incrementAndGet(bucketOf(micros));
+        }
+
+        JSObject toJSObject() {
+            long count = this.count.get();
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            JSObject result = new JSObject();
+            result.put("count", count);
+            result.put("errors", errors.get());
+            result.put("meanMs", count > 0 ? totalMicros.get() / 1000.0 / count : 0);
+            result.put("maxMs", maxMicros.get() / 1000.0);
+            result.put("p50Ms", percentile(snapshot, total, 0.50));
+            result.put("p90Ms", percentile(snapshot, total, 0.90));
+            result.put("p99Ms", percentile(snapshot, total, 0.99));
+            return result;
+        }
+    }
+
+    private final Map<String, Stat> stats = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    static long now() {
+        return System.nanoTime();
+    }
+
+    void record(String name, long startNanos, boolean success) {
+        stat(name).record(Math.max(0, (now() - startNanos) / 1000), success);
+    }
+
+    void increment(String name) {
+        AtomicLong counter = counters.get(name);
+        if (counter == null) {
+            AtomicLong created = new AtomicLong();
+            counter = counters.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.incrementAndGet();
+    }
+
+    void reset() {
+        stats.clear();
+        counters.clear();
+    }
+
+    JSObject toJSObject() {
+        JSObject latencies = new JSObject();
+        for (Map.Entry<String, Stat> entry : stats.entrySet()) {
+            latencies.put(entry.getKey(), entry.getValue().toJSObject());
+        }
+        JSObject counters = new JSObject();
+        for (Map.Entry<String, AtomicLong> entry : this.counters.entrySet()) {
+            counters.put(entry.getKey(), entry.getValue().get());
+        }
+        JSObject result = new JSObject();
+        result.put("latencies", latencies);
+        result.put("counters", counters);
+        return result;
+    }
+
+    private Stat stat(String name) {
+        Stat stat = stats.get(name);
+        if (stat == null) {
+            Stat created = new Stat();
+            stat = stats.putIfAbsent(name, created);
+            if (stat == null) {
+                stat = created;
+            }
+        }
+        return stat;
+    }
+
+    private static int bucketOf(long micros) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static double percentile(long[] buckets, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return (1L << i) / 1000.0;
+            }
+        }
+        return (1L << (BUCKETS - 1)) / 1000.0;
+    }
+}
@@ -0,0 +1,301 @@
+package com.getcapacitor.community.googlepay;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * The pending pushProvisionBatch queue, persisted as versioned JSON in app-private storage after every change
+ * so it survives process death while the Google Pay screen is open. Cards keep a caller-chosen opcRef,
+ * the opc itself only ever lives in memory. Client name and address are kept only until their card settled,
+ * and the file is deleted as soon as the batch is done or cleared.
+ */
+class ProvisionBatchStore {
+
+    static final int VERSION = 1;
+    private static final String FILE_NAME = "capacitor-google-pay-provision-batch.json";
+
+    static final String STATUS_PENDING = "pending";
+    static final String STATUS_LAUNCHED = "launched";
+    static final String STATUS_PROVISIONED = "provisioned";
+    static final String STATUS_SKIPPED = "skipped";
+    static final String STATUS_CANCELED = "canceled";
+    static final String STATUS_FAILED = "failed";
+
+    static final class Card {
+
+        final int index;
+        final String opcRef;
+        final String tsp;
+        final String lastDigits;
+
+        // Null once the card settled, it is never launched again
+        @Nullable
+        String clientName;
+
+        @Nullable
+        JSONObject address;
+
+        String status = STATUS_PENDING;
+
+        @Nullable
+        String tokenId;
+
+        @Nullable
+        JSObject error;
+
+        Card(int index, String opcRef, String tsp, @Nullable String clientName, String lastDigits, @Nullable JSONObject address) {
+            this.index = index;
+            this.opcRef = opcRef;
+            this.tsp = tsp;
+            this.clientName = clientName;
+            this.lastDigits = lastDigits;
+            this.address = address;
+        }
+
+        /**
+         * The card as reported to JS, without its address.
+         */
+        JSObject toJSObject() {
+            JSObject result = new JSObject();
+            result.put("index", index);
+            result.put("opcRef", opcRef);
+            result.put("tsp", tsp);
+            result.put("lastDigits", lastDigits);
+            result.put("status", status);
+            if (tokenId != null) {
+                result.put("tokenId", tokenId);
+            }
+            if (error != null) {
+                result.put("error", error);
+            }
+            return result;
+        }
+
+        private JSObject toStored() {
+            JSObject result = toJSObject();
+            if (clientName != null) {
+                result.put("clientName", clientName);
+            }
+            if (address != null) {
+                result.put("address", address);
+            }
+            return result;
+        }
+
+        private static Card fromStored(int index, JSONObject stored) throws JSONException {
+            Card card = new Card(
+                index,
+                stored.getString("opcRef"),
+                stored.getString("tsp"),
+                stored.has("clientName") ? stored.getString("clientName") : null,
+                stored.getString("lastDigits"),
+                stored.optJSONObject("address")
+            );
+            card.status = stored.getString("status");
+            card.tokenId = stored.has("tokenId") ? stored.getString("tokenId") : null;
+            JSONObject error = stored.optJSONObject("error");
+            card.error = error != null ? JSObject.fromJSONObject(error) : null;
+            return card;
+        }
+    }
+
+    private final AtomicFile file;
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+
+    @Nullable
+    private String batchId;
+
+    private List<Card> cards = Collections.emptyList();
+    private boolean loaded;
+
+    ProvisionBatchStore(@NonNull Context context) {
+        this.file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    synchronized boolean isActive() {
+        load();
+        return batchId != null;
+    }
+
+    synchronized void start(String batchId, List<Card> cards) {
+        load();
+        this.batchId = batchId;
+        this.cards = new ArrayList<>(cards);
+        save();
+    }
+
+    /**
+     * The first card still to provision, or null when the batch is done.
+     */
+    @Nullable
+    synchronized Card next() {
+        load();
+        for (Card card : cards) {
+            if (STATUS_PENDING.equals(card.status)) {
+                return card;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts a card left launched by a process that died before its result back in the queue.
+     * The isTokenized check before the next launch tells whether that attempt got through.
+     */
+    synchronized void recoverLaunched() {
+        load();
+        for (Card card : cards) {
+            if (STATUS_LAUNCHED.equals(card.status)) {
+                card.status = STATUS_PENDING;
+                save();
+            }
+        }
+    }
+
+    /**
+     * The card whose Google Pay screen is open, also after the process was restarted.
+     */
+    @Nullable
+    synchronized Card launched() {
+        load();
+        for (Card card : cards) {
+            if (STATUS_LAUNCHED.equals(card.status)) {
+                return card;
+            }
+        }
+        return null;
+    }
+
+    synchronized void update(Card card, String status, @Nullable String tokenId, @Nullable JSObject error) {
+        card.status = status;
+        card.tokenId = tokenId;
+        card.error = error;
+        if (!STATUS_PENDING.equals(status) && !STATUS_LAUNCHED.equals(status)) {
+            card.clientName = null;
+            card.address = null;
+        }
+        save();
+    }
+
+    synchronized int size() {
+        load();
+        return cards.size();
+    }
+
+    @Nullable
+    synchronized String getBatchId() {
+        load();
+        return batchId;
+    }
+
+    /**
+     * {batchId, complete, cards} or null without a batch.
+     */
+    @Nullable
+    synchronized JSObject snapshot() {
+        load();
+        if (batchId == null) {
+            return null;
+        }
+        JSArray result = new JSArray();
+        boolean complete = true;
+        for (Card card : cards) {
+            result.put(card.toJSObject());
+            complete &= !STATUS_PENDING.equals(card.status) && !STATUS_LAUNCHED.equals(card.status);
+        }
+        JSObject snapshot = new JSObject();
+        snapshot.put("batchId", batchId);
+        snapshot.put("complete", complete);
+        snapshot.put("cards", result);
+        return snapshot;
+    }
+
+    synchronized void clear() {
+        load();
+        batchId = null;
+        cards = Collections.emptyList();
+        if (!io.isShutdown()) {
+            io.execute(file::delete);
+        }
+    }
+
+    /**
+     * Lets queued writes finish and stops the io thread.
+     */
+    synchronized void close() {
+        io.shutdown();
+    }
+
+    private void save() {
+        if (batchId == null || io.isShutdown()) {
+            return;
+        }
+        JSArray stored = new JSArray();
+        for (Card card : cards) {
+            stored.put(card.toStored());
+        }
+        JSObject state = new JSObject();
+        state.put("version", VERSION);
+        state.put("batchId", batchId);
+        state.put("savedAt", System.currentTimeMillis());
+        state.put("cards", stored);
+        final String json = state.toString();
+        io.execute(() -> write(json));
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.getBaseFile().exists()) {
+            return;
+        }
+        try {
+            JSObject stored = new JSObject(new String(file.readFully(), StandardCharsets.UTF_8));
+            if (stored.getInteger("version", 0) != VERSION) {
+                file.delete();
+                return;
+            }
+            JSONArray storedCards = stored.getJSONArray("cards");
+            List<Card> restored = new ArrayList<>(storedCards.length());
+            for (int i = 0; i < storedCards.length(); i++) {
+                restored.add(Card.fromStored(i, storedCards.getJSONObject(i)));
+            }
+            batchId = stored.getString("batchId");
+            cards = restored;
+        } catch (Exception e) {
+            PluginLog.w("ProvisionBatchStore: discarding unreadable batch {}", e.getMessage());
+            file.delete();
+        }
+    }
+
+    private void write(String json) {
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            stream.write(json.getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(stream);
+        } catch (Exception e) {
+            PluginLog.w("ProvisionBatchStore: {}", e.getMessage());
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+        }
+    }
+}
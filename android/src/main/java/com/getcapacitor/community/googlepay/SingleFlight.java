@@ -0,0 +1,98 @@
+package com.getcapacitor.community.googlepay;
+
+import com.google.android.gms.tasks.Task;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces identical TapAndPay queries: while a query is in flight, later callers share its Task.
+ * Every caller counts as a waiter, a caller that loses interest leaves, and the query is only canceled once
+ * nobody waits for it anymore.
+ */
+class SingleFlight {
+
+    interface TaskFactory<T> {
+        Task<T> start();
+    }
+
+    interface Canceler {
+        /**
+         * Returns true when the query under the key was canceled before it started.
+         */
+        boolean cancel(String key);
+    }
+
+    private static final class Flight {
+
+        final Task<?> task;
+        int waiters = 1;
+
+        Flight(Task<?> task) {
+            this.task = task;
+        }
+    }
+
+    private final Map<String, Flight> inFlight = new HashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    <T> Task<T> run(String key, TaskFactory<T> factory) {
+        synchronized (inFlight) {
+            Flight existing = inFlight.get(key);
+            if (existing != null) {
+                existing.waiters++;
+                coalesced.incrementAndGet();
+                return (Task<T>) existing.task;
+            }
+            Task<T> task = factory.start();
+            if (!task.isComplete()) {
+                inFlight.put(key, new Flight(task));
+                task.addOnCompleteListener(completed -> remove(key, completed));
+            }
+            return task;
+        }
+    }
+
+    /**
+     * Drops one waiter of the query behind the task and cancels the query when that was the last one.
+     * Tasks that already completed or never went through here are ignored.
+     */
+    void leave(Task<?> task, Canceler canceler) {
+        synchronized (inFlight) {
+            Iterator<Map.Entry<String, Flight>> iterator = inFlight.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Flight> entry = iterator.next();
+                Flight flight = entry.getValue();
+                if (flight.task != task) {
+                    continue;
+                }
+                if (--flight.waiters <= 0 && canceler.cancel(entry.getKey())) {
+                    // Nobody may join the canceled query before its failure arrives
+                    iterator.remove();
+                }
+                return;
+            }
+        }
+    }
+
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    int size() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+
+    private void remove(String key, Task<?> task) {
+        synchronized (inFlight) {
+            Flight flight = inFlight.get(key);
+            if (flight != null && flight.task == task) {
+                inFlight.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.getcapacitor.community.googlepay;
+
+import android.app.Activity;
+import com.google.android.gms.tapandpay.issuer.UserAddress;
+import com.google.android.gms.tasks.Task;
+import java.util.List;
+
+/**
+ * The TapAndPay operations the plugin uses. Task failures carry the same ApiException status codes as
+ * TapAndPayClient, and activity flows report back through the plugin's onActivityResult.
+ */
+interface TapAndPayBackend {
+    interface DataChangedListener {
+        void onDataChanged();
+    }
+
+    Task<String> getEnvironment();
+
+    Task<String> getActiveWalletId();
+
+    Task<String> getStableHardwareId();
+
+    Task<Integer> getTokenState(int tsp, String tokenReferenceId);
+
+    Task<List<WalletToken>> listTokens();
+
+    Task<Boolean> isTokenized(int network, int tsp, String lastDigits);
+
+    void registerDataChangedListener(DataChangedListener listener);
+
+    /**
+     * Drops the registered listeners, the backend is not used afterwards.
+     */
+    void close();
+
+    void createWallet(Activity activity, int requestCode);
+
+    void pushTokenize(
+        Activity activity,
+        byte[] opc,
+        int network,
+        int tsp,
+        String displayName,
+        String lastDigits,
+        UserAddress address,
+        int requestCode
+    );
+
+    void tokenize(Activity activity, String tokenReferenceId, int tsp, String displayName, int network, int requestCode);
+
+    void requestSelectToken(Activity activity, String tokenReferenceId, int tsp, int requestCode);
+
+    void requestDeleteToken(Activity activity, String tokenReferenceId, int tsp, int requestCode);
+}
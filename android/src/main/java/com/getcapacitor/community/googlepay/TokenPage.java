@@ -0,0 +1,105 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.List;
+import org.json.JSONObject;
+
+/**
+ * Encodes one page of a filtered token list, so large wallets cross the bridge in bounded messages.
+ * The cursor is "offset:tokenReferenceId" of the last token returned. The next page resumes after that token
+ * even when tokens were added or removed in front of it, and falls back to the offset once it is gone.
+ */
+final class TokenPage {
+
+    static final int MAX_PAGE_SIZE = 500;
+    static final int ANY_TSP = Integer.MIN_VALUE;
+
+    private TokenPage() {}
+
+    /**
+     * @param tsp token service provider to keep, or {@link #ANY_TSP}
+     * @param states token states to keep, null keeps every state
+     * @throws IllegalArgumentException for a cursor this class did not issue
+     */
+    static JSObject encode(
+        List<WalletToken> tokens,
+        int tsp,
+        @Nullable int[] states,
+        @Nullable String cursor,
+        int pageSize,
+        boolean detailed
+    ) {
+        int start = resumeIndex(tokens, cursor);
+        JSArray page = new JSArray();
+        int taken = 0;
+        int total = 0;
+        int last = -1;
+        boolean more = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            WalletToken token = tokens.get(i);
+            if (!matches(token, tsp, states)) {
+                continue;
+            }
+            total++;
+            if (i < start) {
+                continue;
+            }
+            if (taken < pageSize) {
+                page.put(detailed ? GooglePay.walletTokenToJSObject(token) : token.tokenReferenceId);
+                taken++;
+                last = i;
+            } else {
+                more = true;
+            }
+        }
+
+        JSObject result = new JSObject();
+        result.put("tokens", page);
+        result.put("nextCursor", more ? (last + 1) + ":" + tokens.get(last).tokenReferenceId : JSONObject.NULL);
+        result.put("total", total);
+        return result;
+    }
+
+    static boolean matches(WalletToken token, int tsp, @Nullable int[] states) {
+        if (tsp != ANY_TSP && token.tokenServiceProvider != tsp) {
+            return false;
+        }
+        if (states == null) {
+            return true;
+        }
+        for (int state : states) {
+            if (token.state == state) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int resumeIndex(List<WalletToken> tokens, @Nullable String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        int separator = cursor.indexOf(':');
+        int offset;
+        try {
+            offset = separator > 0 ? Integer.parseInt(cursor.substring(0, separator)) : -1;
+        } catch (NumberFormatException e) {
+            offset = -1;
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String tokenReferenceId = cursor.substring(separator + 1);
+        if (offset > 0 && offset <= tokens.size() && tokens.get(offset - 1).tokenReferenceId.equals(tokenReferenceId)) {
+            return offset;
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).tokenReferenceId.equals(tokenReferenceId)) {
+                return i + 1;
+            }
+        }
+        return Math.min(offset, tokens.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the last token states seen by the data-changed pipeline and turns a new token list into a diff.
+ */
+class TokenStateTracker {
+
+    @Nullable
+    private Map<String, Integer> states;
+
+    synchronized void reset(List<WalletToken> tokens) {
+        states = toStates(tokens);
+    }
+
+    /**
+     * Returns {added, removed, changed} against the previous token list and remembers the new one.
+     * Without a previous list there is nothing to compare, the diff is empty.
+     */
+    synchronized JSObject diff(List<WalletToken> tokens) {
+        Map<String, Integer> previous = states;
+        Map<String, Integer> current = toStates(tokens);
+        states = current;
+        if (previous == null) {
+            return unchanged();
+        }
+
+        JSArray added = new JSArray();
+        JSArray changed = new JSArray();
+        for (WalletToken token : tokens) {
+            Integer oldState = previous.get(token.tokenReferenceId);
+            if (oldState == null) {
+                added.put(token.tokenReferenceId);
+            } else if (oldState != token.state) {
+                JSObject change = new JSObject();
+                change.put("tokenReferenceId", token.tokenReferenceId);
+                change.put("oldState", oldState.intValue());
+                change.put("oldCode", GooglePay.TokenStatusReference.getName(oldState));
+                change.put("newState", token.state);
+                change.put("newCode", GooglePay.TokenStatusReference.getName(token.state));
+                changed.put(change);
+            }
+        }
+        JSArray removed = new JSArray();
+        for (String tokenReferenceId : previous.keySet()) {
+            if (!current.containsKey(tokenReferenceId)) {
+                removed.put(tokenReferenceId);
+            }
+        }
+
+        JSObject result = new JSObject();
+        result.put("added", added);
+        result.put("removed", removed);
+        result.put("changed", changed);
+        return result;
+    }
+
+    static JSObject unchanged() {
+        JSObject result = new JSObject();
+        result.put("added", new JSArray());
+        result.put("removed", new JSArray());
+        result.put("changed", new JSArray());
+        return result;
+    }
+
+    private static Map<String, Integer> toStates(List<WalletToken> tokens) {
+        Map<String, Integer> states = new HashMap<>(tokens.size() * 2);
+        for (WalletToken token : tokens) {
+            states.put(token.tokenReferenceId, token.state);
+        }
+        return states;
+    }
+}
@@ -0,0 +1,137 @@
+package com.getcapacitor.community.googlepay;
+
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cache of token states and of the last token list, keyed by (TSP, tokenReferenceId).
+ * Every invalidation starts a new generation, and a query only stores its result when it started in the
+ * current one, so a query that raced a data change cannot put pre-change data back.
+ */
+class TokenStatusCache {
+
+    private static final class Entry {
+
+        final int state;
+        final long expiresAt;
+
+        Entry(int state, long expiresAt) {
+            this.state = state;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long ttlMs;
+    private final Map<String, Entry> states;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Nullable
+    private List<WalletToken> tokens;
+
+    private long tokensExpiresAt;
+    private long generation;
+
+    TokenStatusCache(long ttlMs, int maxSize) {
+        this.ttlMs = ttlMs;
+        this.states =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxSize;
+                }
+            };
+    }
+
+    boolean isEnabled() {
+        return ttlMs > 0;
+    }
+
+    @Nullable
+    synchronized Integer getTokenState(int tsp, String tokenReferenceId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = key(tsp, tokenReferenceId);
+        Entry entry = states.get(key);
+        if (entry == null || entry.expiresAt <= SystemClock.elapsedRealtime()) {
+            if (entry != null) {
+                states.remove(key);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.state;
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    synchronized void putTokenState(int tsp, String tokenReferenceId, int state, long generation) {
+        if (isEnabled() && generation == this.generation) {
+            states.put(key(tsp, tokenReferenceId), new Entry(state, SystemClock.elapsedRealtime() + ttlMs));
+        }
+    }
+
+    @Nullable
+    synchronized List<WalletToken> getTokens() {
+        if (!isEnabled()) {
+            return null;
+        }
+        if (tokens == null || tokensExpiresAt <= SystemClock.elapsedRealtime()) {
+            tokens = null;
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return tokens;
+    }
+
+    /**
+     * Returns false when the list was queried before the last invalidation and is not stored.
+     */
+    synchronized boolean putTokens(List<WalletToken> tokens, long generation) {
+        if (generation != this.generation) {
+            return false;
+        }
+        if (!isEnabled()) {
+            return true;
+        }
+        long expiresAt = SystemClock.elapsedRealtime() + ttlMs;
+        this.tokens = tokens;
+        this.tokensExpiresAt = expiresAt;
+        // A token list already carries every state, so it warms the per-token lookups too
+        for (WalletToken token : tokens) {
+            states.put(key(token.tokenServiceProvider, token.tokenReferenceId), new Entry(token.state, expiresAt));
+        }
+        return true;
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        states.clear();
+        tokens = null;
+    }
+
+    synchronized int size() {
+        return states.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    private static String key(int tsp, String tokenReferenceId) {
+        return tsp + ":" + tokenReferenceId;
+    }
+}
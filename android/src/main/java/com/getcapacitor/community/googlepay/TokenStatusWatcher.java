@@ -0,0 +1,243 @@
+package com.getcapacitor.community.googlepay;
+
+import static com.google.android.gms.tapandpay.TapAndPayStatusCodes.TAP_AND_PAY_TOKEN_NOT_FOUND;
+
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSObject;
+import com.google.android.gms.common.api.ApiException;
+import com.google.android.gms.tapandpay.TapAndPay;
+import com.google.android.gms.tasks.Task;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls tokens that are still being provisioned with exponential backoff and reports state changes.
+ * Polling pauses while the app is in the background and restarts right away on data-changed callbacks.
+ */
+class TokenStatusWatcher {
+
+    interface StateFetcher {
+        Task<Integer> fetch(int tsp, String tokenReferenceId);
+
+        /**
+         * Called when a watch is cleared while its fetch is in flight, this watch no longer waits for it.
+         */
+        void release(Task<Integer> fetch);
+    }
+
+    interface ChangeListener {
+        void onTokenStatusChanged(JSObject change);
+    }
+
+    private static final class Watch {
+
+        final String id;
+        final String tsp;
+        final int tspCode;
+        final String tokenReferenceId;
+        int state;
+        long delay;
+
+        @Nullable
+        ScheduledFuture<?> next;
+
+        boolean polling;
+
+        @Nullable
+        Task<Integer> fetch;
+
+        Watch(String id, String tsp, int tspCode, String tokenReferenceId, int state, long delay) {
+            this.id = id;
+            this.tsp = tsp;
+            this.tspCode = tspCode;
+            this.tokenReferenceId = tokenReferenceId;
+            this.state = state;
+            this.delay = delay;
+        }
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final StateFetcher fetcher;
+    private final ChangeListener listener;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<String, Watch> watches = new HashMap<>();
+    private boolean paused;
+
+    TokenStatusWatcher(
+        ScheduledExecutorService scheduler,
+        Executor executor,
+        StateFetcher fetcher,
+        ChangeListener listener,
+        long initialDelay,
+        long maxDelay
+    ) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.fetcher = fetcher;
+        this.listener = listener;
+        this.initialDelay = initialDelay;
+        this.maxDelay = Math.max(initialDelay, maxDelay);
+    }
+
+    static boolean isPending(int state) {
+        return (
+            state == TapAndPay.TOKEN_STATE_PENDING ||
+            state == TapAndPay.TOKEN_STATE_NEEDS_IDENTITY_VERIFICATION ||
+            state == TapAndPay.TOKEN_STATE_FELICA_PENDING_PROVISIONING
+        );
+    }
+
+    synchronized String watch(String tsp, int tspCode, String tokenReferenceId, int state) {
+        String id = "watch-" + nextId.incrementAndGet();
+        Watch watch = new Watch(id, tsp, tspCode, tokenReferenceId, state, initialDelay);
+        watches.put(id, watch);
+        schedule(watch);
+        return id;
+    }
+
+    synchronized boolean clear(String watchId) {
+        Watch watch = watches.remove(watchId);
+        if (watch == null) {
+            return false;
+        }
+        cancel(watch);
+        release(watch);
+        return true;
+    }
+
+    synchronized void clearAll() {
+        List<Watch> cleared = new ArrayList<>(watches.values());
+        watches.clear();
+        for (Watch watch : cleared) {
+            cancel(watch);
+            release(watch);
+        }
+    }
+
+    synchronized void pause() {
+        paused = true;
+        for (Watch watch : watches.values()) {
+            cancel(watch);
+        }
+    }
+
+    synchronized void resume() {
+        paused = false;
+        wake();
+    }
+
+    /**
+     * Polls every watched token right away and restarts its backoff.
+     */
+    synchronized void wake() {
+        if (paused) {
+            return;
+        }
+        for (Watch watch : watches.values()) {
+            cancel(watch);
+            watch.delay = initialDelay;
+            if (!watch.polling) {
+                watch.next = scheduler.schedule(() -> poll(watch), 0, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return watches.size();
+    }
+
+    private void schedule(Watch watch) {
+        if (paused || watch.polling) {
+            return;
+        }
+        watch.next = scheduler.schedule(() -> poll(watch), watch.delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void release(Watch watch) {
+        if (watch.fetch != null) {
+            fetcher.release(watch.fetch);
+            watch.fetch = null;
+        }
+    }
+
+    private void cancel(Watch watch) {
+        if (watch.next != null) {
+            watch.next.cancel(false);
+            watch.next = null;
+        }
+    }
+
+    private void poll(Watch watch) {
+        synchronized (this) {
+            if (paused || watches.get(watch.id) != watch || watch.polling) {
+                return;
+            }
+            watch.polling = true;
+            watch.next = null;
+        }
+        Task<Integer> fetch = fetcher.fetch(watch.tspCode, watch.tokenReferenceId);
+        synchronized (this) {
+            if (watches.get(watch.id) == watch) {
+                watch.fetch = fetch;
+            } else {
+                // Cleared while the fetch was being started
+                fetcher.release(fetch);
+            }
+        }
+        fetch.addOnCompleteListener(executor, task -> {
+            JSObject change = null;
+            synchronized (this) {
+                watch.polling = false;
+                watch.fetch = null;
+                if (watches.get(watch.id) != watch) {
+                    return;
+                }
+                Integer state = null;
+                if (task.isSuccessful()) {
+                    state = task.getResult();
+                } else if (
+                    task.getException() instanceof ApiException apiException &&
+                    apiException.getStatusCode() == TAP_AND_PAY_TOKEN_NOT_FOUND
+                ) {
+                    state = GooglePay.TokenStatusReference.TOKEN_STATE_NOT_FOUND.referenceId;
+                }
+
+                if (state != null && state != watch.state) {
+                    change = new JSObject();
+                    change.put("watchId", watch.id);
+                    change.put("tokenReferenceId", watch.tokenReferenceId);
+                    change.put("tsp", watch.tsp);
+                    change.put("oldState", watch.state);
+                    change.put("oldCode", GooglePay.TokenStatusReference.getName(watch.state));
+                    change.put("newState", state.intValue());
+                    change.put("newCode", GooglePay.TokenStatusReference.getName(state));
+                    change.put("done", !isPending(state));
+                    watch.state = state;
+                    // A new state is worth a quick follow-up, otherwise back off
+                    watch.delay = initialDelay;
+                } else {
+                    watch.delay = Math.min(watch.delay * 2, maxDelay);
+                }
+
+                if (!isPending(watch.state)) {
+                    watches.remove(watch.id);
+                } else {
+                    schedule(watch);
+                }
+            }
+            if (change != null) {
+                listener.onTokenStatusChanged(change);
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.getcapacitor.community.googlepay;
+
+import android.os.SystemClock;
+import androidx.annotation.Nullable;
+import com.google.android.gms.tapandpay.TapAndPay;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Local answer to isTokenized, keyed by (card network, lastDigits) and built from listTokens.
+ */
+class TokenizedIndex {
+
+    private final long ttlMs;
+
+    @Nullable
+    private Set<String> cards;
+
+    private long expiresAt;
+
+    TokenizedIndex(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    synchronized void rebuild(List<WalletToken> tokens) {
+        if (ttlMs <= 0) {
+            return;
+        }
+        Set<String> cards = new HashSet<>(tokens.size() * 2);
+        for (WalletToken token : tokens) {
+            if (token.state != TapAndPay.TOKEN_STATE_UNTOKENIZED) {
+                cards.add(key(token.network, token.lastDigits));
+            }
+        }
+        this.cards = cards;
+        this.expiresAt = SystemClock.elapsedRealtime() + ttlMs;
+    }
+
+    /**
+     * Returns null when the index is cold or stale and the caller has to ask Google Pay.
+     */
+    @Nullable
+    synchronized Boolean isTokenized(int network, String lastDigits) {
+        if (!isWarm()) {
+            return null;
+        }
+        return cards.contains(key(network, lastDigits));
+    }
+
+    synchronized boolean isWarm() {
+        return cards != null && expiresAt > SystemClock.elapsedRealtime();
+    }
+
+    synchronized boolean wasBuilt() {
+        return cards != null;
+    }
+
+    synchronized void invalidate() {
+        expiresAt = 0;
+    }
+
+    private static String key(int network, String lastDigits) {
+        return network + ":" + lastDigits;
+    }
+}
@@ -0,0 +1,111 @@
+package com.getcapacitor.community.googlepay;
+
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of structured trace events. Slots are preallocated parallel arrays,
+ * so recording an event does not allocate; a capacity of 0 disables tracing.
+ */
+class TraceBuffer {
+
+    static final int NONE = Integer.MIN_VALUE;
+
+    private final int capacity;
+    private final long[] times;
+    private final String[] methods;
+    private final String[] events;
+    private final int[] requestCodes;
+    private final int[] resultCodes;
+    private final long[] durations;
+    private final String[] errorCodes;
+    private final long[] launches;
+    private long next;
+
+    TraceBuffer(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.times = new long[this.capacity];
+        this.methods = new String[this.capacity];
+        this.events = new String[this.capacity];
+        this.requestCodes = new int[this.capacity];
+        this.resultCodes = new int[this.capacity];
+        this.durations = new long[this.capacity];
+        this.errorCodes = new String[this.capacity];
+        this.launches = new long[this.capacity];
+    }
+
+    boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    void record(String method, String event) {
+        record(method, event, NONE, NONE, 0, null, 0);
+    }
+
+    /**
+     * @param durationMicros 0 when the event has no duration
+     * @param launch per-launch token of an activity flow, 0 when the event is not tied to one
+     */
+    void record(String method, String event, int requestCode, int resultCode, long durationMicros, @Nullable String errorCode, long launch) {
+        if (capacity == 0) {
+            return;
+        }
+        synchronized (this) {
+            int slot = (int) (next++ % capacity);
+            times[slot] = System.currentTimeMillis();
+            methods[slot] = method;
+            events[slot] = event;
+            requestCodes[slot] = requestCode;
+            resultCodes[slot] = resultCode;
+            durations[slot] = durationMicros;
+            errorCodes[slot] = errorCode;
+            launches[slot] = launch;
+        }
+    }
+
+    /**
+     * Oldest first. Keys: t time (epoch ms), m method, ev event, rq request code, rs result code,
+     * d duration (ms), e error code, id launch token; absent values are left out.
+     */
+    synchronized JSObject export() {
+        JSArray list = new JSArray();
+        long count = Math.min(next, capacity);
+        for (long i = next - count; i < next; i++) {
+            int slot = (int) (i % capacity);
+            JSObject event = new JSObject();
+            event.put("t", times[slot]);
+            event.put("m", methods[slot]);
+            event.put("ev", events[slot]);
+            if (requestCodes[slot] != NONE) {
+                event.put("rq", requestCodes[slot]);
+            }
+            if (resultCodes[slot] != NONE) {
+                event.put("rs", resultCodes[slot]);
+            }
+            if (durations[slot] > 0) {
+                event.put("d", durations[slot] / 1000.0);
+            }
+            if (errorCodes[slot] != null) {
+                event.put("e", errorCodes[slot]);
+            }
+            if (launches[slot] != 0) {
+                event.put("id", launches[slot]);
+            }
+            list.put(event);
+        }
+        JSObject result = new JSObject();
+        result.put("capacity", capacity);
+        result.put("recorded", next);
+        result.put("events", list);
+        return result;
+    }
+
+    synchronized void clear() {
+        next = 0;
+        Arrays.fill(methods, null);
+        Arrays.fill(events, null);
+        Arrays.fill(errorCodes, null);
+    }
+}
@@ -0,0 +1,237 @@
+package com.getcapacitor.community.googlepay;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Last known wallet state, persisted as versioned JSON in app-private storage and scoped by active wallet ID.
+ * Writes name the wallet their data was read for and are dropped unless Google Pay confirmed that wallet as
+ * the active one in this process, so a switched account never inherits the previous wallet's tokens.
+ * Published states are never mutated, every update replaces them with a copy.
+ */
+class WalletStateStore {
+
+    static final int VERSION = 1;
+    private static final String FILE_NAME = "capacitor-google-pay-wallet-state.json";
+    private static final String[] FIELDS = { "environment", "walletId", "tokens" };
+
+    private final AtomicFile file;
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+
+    @Nullable
+    private JSObject state;
+
+    // Active wallet as last reported by Google Pay in this process, null until then and after data changes
+    @Nullable
+    private String activeWalletId;
+
+    private boolean loaded;
+
+    WalletStateStore(@NonNull Context context) {
+        this.file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+        // Warm up off the main thread so the first read is served from memory
+        io.execute(this::load);
+    }
+
+    /**
+     * Lets queued writes finish and stops the io thread.
+     */
+    synchronized void close() {
+        io.shutdown();
+    }
+
+    @Nullable
+    synchronized JSObject get() {
+        load();
+        return state;
+    }
+
+    /**
+     * The wallet to name in writes of data queried now, null when it is not known.
+     */
+    @Nullable
+    synchronized String getActiveWalletId() {
+        return activeWalletId;
+    }
+
+    /**
+     * Drops the confirmed wallet, e.g. when the wallet changed and the active account may be another one.
+     */
+    synchronized void forgetActiveWallet() {
+        activeWalletId = null;
+    }
+
+    synchronized void putEnvironment(@Nullable String walletId, @Nullable String environment) {
+        if (isActive(walletId)) {
+            update("environment", environment);
+        }
+    }
+
+    synchronized void putWalletId(@Nullable String walletId) {
+        load();
+        activeWalletId = walletId;
+        if (state != null && !Objects.equals(state.getString("walletId"), walletId)) {
+            // Another wallet is active, nothing we know about the old one applies
+            state = null;
+        }
+        update("walletId", walletId);
+    }
+
+    synchronized void putTokens(@Nullable String walletId, JSArray tokens) {
+        if (isActive(walletId)) {
+            update("tokens", tokens);
+        }
+    }
+
+    synchronized void putTokenState(@Nullable String walletId, String tokenReferenceId, int tokenState, @Nullable Object code) {
+        if (!isActive(walletId)) {
+            return;
+        }
+        try {
+            JSObject next = copy(state);
+            JSONArray tokens = next.optJSONArray("tokens");
+            if (tokens == null) {
+                return;
+            }
+            for (int i = 0; i < tokens.length(); i++) {
+                JSONObject token = tokens.optJSONObject(i);
+                if (token != null && tokenReferenceId.equals(token.optString("tokenReferenceId")) && token.optInt("state") != tokenState) {
+                    token.put("state", tokenState);
+                    token.put("code", code);
+                    publish(next);
+                    return;
+                }
+            }
+        } catch (JSONException e) {
+            PluginLog.w("WalletStateStore: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the stored state with a live one and returns {previous, current, changed} when anything differs.
+     */
+    @Nullable
+    synchronized JSObject reconcile(JSObject live) {
+        load();
+        activeWalletId = live.getString("walletId");
+        JSObject previous = state;
+        if (previous != null && !Objects.equals(previous.getString("walletId"), live.getString("walletId"))) {
+            previous = null;
+        }
+        JSArray changed = new JSArray();
+        for (String field : FIELDS) {
+            if (!Objects.equals(valueOf(previous, field), valueOf(live, field))) {
+                changed.put(field);
+            }
+        }
+        if (changed.length() == 0) {
+            return null;
+        }
+        JSObject current;
+        try {
+            current = copy(live);
+        } catch (JSONException e) {
+            return null;
+        }
+        publish(current);
+
+        JSObject diff = new JSObject();
+        diff.put("previous", previous != null ? previous : JSONObject.NULL);
+        diff.put("current", current);
+        diff.put("changed", changed);
+        return diff;
+    }
+
+    /**
+     * Whether data read for walletId may be written, i.e. it is the confirmed active wallet and the stored state is its own.
+     */
+    private boolean isActive(@Nullable String walletId) {
+        load();
+        return walletId != null && walletId.equals(activeWalletId) && state != null && walletId.equals(state.getString("walletId"));
+    }
+
+    private void update(String field, @Nullable Object value) {
+        load();
+        if (state != null && Objects.equals(valueOf(state, field), value != null ? value.toString() : null)) {
+            return;
+        }
+        try {
+            JSObject next = state != null ? copy(state) : new JSObject();
+            next.put(field, value != null ? value : JSONObject.NULL);
+            publish(next);
+        } catch (JSONException e) {
+            PluginLog.w("WalletStateStore: {}", e.getMessage());
+        }
+    }
+
+    private void publish(JSObject next) {
+        next.put("version", VERSION);
+        next.put("savedAt", System.currentTimeMillis());
+        state = next;
+        final String json = next.toString();
+        if (!io.isShutdown()) {
+            io.execute(() -> write(json));
+        }
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.getBaseFile().exists()) {
+            return;
+        }
+        try {
+            JSObject stored = new JSObject(new String(file.readFully(), StandardCharsets.UTF_8));
+            if (stored.getInteger("version", 0) == VERSION) {
+                state = stored;
+            } else {
+                file.delete();
+            }
+        } catch (Exception e) {
+            PluginLog.w("WalletStateStore: discarding unreadable state {}", e.getMessage());
+            file.delete();
+        }
+    }
+
+    private void write(String json) {
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            stream.write(json.getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(stream);
+        } catch (Exception e) {
+            PluginLog.w("WalletStateStore: {}", e.getMessage());
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+        }
+    }
+
+    @Nullable
+    private static String valueOf(@Nullable JSONObject source, String field) {
+        if (source == null || source.isNull(field)) {
+            return null;
+        }
+        Object value = source.opt(field);
+        return value != null ? value.toString() : null;
+    }
+
+    private static JSObject copy(JSONObject source) throws JSONException {
+        return new JSObject(source.toString());
+    }
+}
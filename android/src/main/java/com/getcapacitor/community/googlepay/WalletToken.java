@@ -0,0 +1,37 @@
+package com.getcapacitor.community.googlepay;
+
+/**
+ * Plugin-owned view of a wallet token, so backends other than Play services can produce token lists.
+ */
+final class WalletToken {
+
+    final String tokenReferenceId;
+    final String issuerName;
+    final String lastDigits;
+    final int network;
+    final int tokenServiceProvider;
+    final int state;
+    final boolean isDefault;
+
+    WalletToken(
+        String tokenReferenceId,
+        String issuerName,
+        String lastDigits,
+        int network,
+        int tokenServiceProvider,
+        int state,
+        boolean isDefault
+    ) {
+        this.tokenReferenceId = tokenReferenceId;
+        this.issuerName = issuerName;
+        this.lastDigits = lastDigits;
+        this.network = network;
+        this.tokenServiceProvider = tokenServiceProvider;
+        this.state = state;
+        this.isDefault = isDefault;
+    }
+
+    WalletToken withState(int state) {
+        return new WalletToken(tokenReferenceId, issuerName, lastDigits, network, tokenServiceProvider, state, isDefault);
+    }
+}
@@ -0,0 +1,240 @@
+package com.getcapacitor.community.googlepay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.test.core.app.ApplicationProvider;
+import com.getcapacitor.Bridge;
+import com.getcapacitor.CapConfig;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.MessageHandler;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginConfig;
+import com.getcapacitor.PluginHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Drives GooglePayPlugin against the fake backend the way the bridge does, counting resolved and rejected calls.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class GooglePayPluginLoadTest {
+
+    private static final long TIMEOUT_MS = 30000;
+    private static final int TOKEN_COUNT = 64;
+    // Far below what the fake backend sustains, so only a regression in the plugin's own overhead trips it
+    private static final int MIN_CALLS_PER_SECOND = 300;
+
+    private final List<GooglePayPlugin> plugins = new ArrayList<>();
+    private final AtomicInteger resolved = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private MessageHandler messageHandler;
+    private int nextCallbackId;
+
+    @Before
+    public void setUp() {
+        messageHandler = mock(MessageHandler.class);
+        doAnswer(invocation -> {
+                if (invocation.getArgument(2) == null) {
+                    resolved.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            })
+            .when(messageHandler)
+            .sendResponseMessage(any(), any(), any());
+    }
+
+    @After
+    public void tearDown() {
+        for (GooglePayPlugin plugin : plugins) {
+            plugin.handleOnDestroy();
+        }
+    }
+
+    @Test
+    public void drivesThousandsOfCallsThroughTheFakeBackend() {
+        GooglePayPlugin plugin = load(new JSObject());
+        int calls = 3000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            // Even fake tokens are Visa, their lastDigits are their index
+            int token = (i / 3 % (TOKEN_COUNT / 2)) * 2;
+            switch (i % 3) {
+                case 0 -> plugin.listTokens(call("listTokens", new JSObject().put("bypassCache", true)));
+                case 1 -> plugin.getTokenStatus(
+                    call(
+                        "getTokenStatus",
+                        new JSObject().put("tsp", "VISA").put("tokenReferenceId", "fake-token-" + token).put("bypassCache", true)
+                    )
+                );
+                default -> plugin.isTokenized(
+                    call(
+                        "isTokenized",
+                        new JSObject()
+                            .put("tsp", "VISA")
+                            .put("lastDigits", String.format(Locale.ROOT, "%04d", token))
+                            .put("bypassCache", true)
+                    )
+                );
+            }
+        }
+        awaitResponses(calls);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(0, rejected.get());
+        assertEquals(calls, resolved.get());
+        long callsPerSecond = calls * 1000L / Math.max(1, elapsedMs);
+        assertTrue(calls + " calls took " + elapsedMs + " ms", callsPerSecond >= MIN_CALLS_PER_SECOND);
+    }
+
+    @Test
+    public void injectedFailuresReachCallers() {
+        // Without retries every injected failure fails exactly one call
+        GooglePayPlugin plugin = load(new JSObject().put("fakeFailurePercent", 25).put("callRetries", 0).put("breakerThreshold", 0));
+        int calls = 100;
+
+        // One at a time, so no call is coalesced with another
+        for (int i = 0; i < calls; i++) {
+            plugin.getActiveWalletID(call("getActiveWalletID", new JSObject()));
+            awaitResponses(i + 1);
+        }
+
+        assertEquals(25, rejected.get());
+        assertEquals(75, resolved.get());
+    }
+
+    @Test
+    public void nonTransientFailuresAreNotRetried() {
+        GooglePayPlugin plugin = load(new JSObject().put("fakeFailurePercent", 25));
+        int calls = 100;
+
+        for (int i = 0; i < calls; i++) {
+            plugin.getActiveWalletID(call("getActiveWalletID", new JSObject()));
+            awaitResponses(i + 1);
+        }
+
+        assertEquals(25, rejected.get());
+        assertEquals(75, resolved.get());
+    }
+
+    @Test
+    public void transientFailuresAreRetriedAway() {
+        // INTERNAL_ERROR, every failed call is retried once and the retry succeeds
+        GooglePayPlugin plugin = load(
+            new JSObject().put("fakeFailurePercent", 25).put("fakeFailureStatus", 8).put("retryBaseDelay", 0)
+        );
+        int calls = 100;
+
+        for (int i = 0; i < calls; i++) {
+            plugin.getActiveWalletID(call("getActiveWalletID", new JSObject()));
+            awaitResponses(i + 1);
+        }
+
+        assertEquals(0, rejected.get());
+        assertEquals(calls, resolved.get());
+    }
+
+    @Test
+    public void hungCallsFailOnceTheDeadlinePassed() {
+        // The fake never answers, retrying the timeout would start a new call and restart the clock
+        GooglePayPlugin plugin = load(new JSObject().put("fakeLatency", -1).put("callTimeout", 500).put("retryBaseDelay", 1));
+
+        long start = System.nanoTime();
+        plugin.getActiveWalletID(call("getActiveWalletID", new JSObject()));
+        awaitResponses(1);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(1, rejected.get());
+        assertTrue("Settled after " + elapsedMs + " ms", elapsedMs >= 500 && elapsedMs < 1000);
+    }
+
+    private GooglePayPlugin load(JSObject config) {
+        config.put("backend", "fake");
+        config.put("fakeTokenCount", TOKEN_COUNT);
+
+        Bridge bridge = mock(Bridge.class);
+        when(bridge.getContext()).thenReturn(ApplicationProvider.getApplicationContext());
+        doAnswer(invocation -> {
+                new Handler(Looper.getMainLooper()).post(invocation.getArgument(0));
+                return null;
+            })
+            .when(bridge)
+            .executeOnMainThread(any());
+        doReturn(mock(ActivityResultLauncher.class)).when(bridge).registerForActivityResult(any(), any());
+        CapConfig capConfig = mock(CapConfig.class);
+        when(capConfig.getPluginConfiguration("GooglePay")).thenReturn(pluginConfig(config));
+        when(bridge.getConfig()).thenReturn(capConfig);
+        PluginHandle handle = mock(PluginHandle.class);
+        when(handle.getId()).thenReturn("GooglePay");
+
+        GooglePayPlugin plugin = new GooglePayPlugin();
+        plugin.setBridge(bridge);
+        plugin.setPluginHandle(handle);
+        plugin.load();
+        plugins.add(plugin);
+        return plugin;
+    }
+
+    /**
+     * PluginConfig cannot be constructed outside com.getcapacitor, so the getters the plugin uses read the JSObject.
+     */
+    private static PluginConfig pluginConfig(JSObject config) {
+        PluginConfig pluginConfig = mock(PluginConfig.class);
+        when(pluginConfig.getConfigJSON()).thenReturn(config);
+        when(pluginConfig.getString(anyString(), any())).thenAnswer(invocation ->
+            config.getString(invocation.getArgument(0), invocation.getArgument(1))
+        );
+        when(pluginConfig.getBoolean(anyString(), anyBoolean())).thenAnswer(invocation ->
+            config.optBoolean(invocation.getArgument(0), invocation.getArgument(1))
+        );
+        when(pluginConfig.getInt(anyString(), anyInt())).thenAnswer(invocation ->
+            config.optInt(invocation.getArgument(0), invocation.getArgument(1))
+        );
+        when(pluginConfig.getObject(anyString())).thenAnswer(invocation -> config.optJSONObject(invocation.getArgument(0)));
+        return pluginConfig;
+    }
+
+    private PluginCall call(String method, JSObject data) {
+        return new PluginCall(messageHandler, "GooglePay", String.valueOf(++nextCallbackId), method, data);
+    }
+
+    /**
+     * Runs the main looper, where results are delivered, until the given number of calls settled.
+     */
+    private void awaitResponses(int expected) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (resolved.get() + rejected.get() < expected) {
+            shadowOf(Looper.getMainLooper()).idle();
+            if (System.nanoTime() > deadline) {
+                fail("Only " + (resolved.get() + rejected.get()) + " of " + expected + " calls settled");
+            }
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.getcapacitor.community.googlepay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Background holds of IpcScheduler, released by the caller or lapsing after the maximum hold.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class IpcSchedulerTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private final PluginMetrics metrics = new PluginMetrics();
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void heldBackgroundQueriesWaitForTheRelease() throws InterruptedException {
+        IpcScheduler ipc = new IpcScheduler(Runnable::run, scheduler, metrics, 4, 0);
+        ipc.setBackgroundHeld(true);
+
+        Task<String> background = ipc.submit(IpcScheduler.Priority.BACKGROUND, "listTokens", "listTokens", () -> Tasks.forResult("tokens"));
+        Task<String> interactive = ipc.submit(IpcScheduler.Priority.INTERACTIVE, "getEnvironment", null, () -> Tasks.forResult("PROD"));
+        Thread.sleep(200);
+
+        assertTrue(interactive.isComplete());
+        assertFalse(background.isComplete());
+
+        ipc.setBackgroundHeld(false);
+        await(background);
+        assertEquals("tokens", background.getResult());
+    }
+
+    @Test
+    public void holdsLapseAfterTheMaximumHold() {
+        // The activity result that would release the hold never arrives
+        IpcScheduler ipc = new IpcScheduler(Runnable::run, scheduler, metrics, 4, 300);
+        ipc.setBackgroundHeld(true);
+
+        long start = System.nanoTime();
+        Task<String> background = ipc.submit(IpcScheduler.Priority.BACKGROUND, "listTokens", "listTokens", () -> Tasks.forResult("tokens"));
+        await(background);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("tokens", background.getResult());
+        assertTrue("Ran after " + elapsedMs + " ms", elapsedMs >= 250);
+        assertEquals(1, metrics.toJSObject().getJSObject("counters").optLong("ipc.holdExpired"));
+        assertFalse(ipc.toJSObject().getBoolean("backgroundHeld", true));
+    }
+
+    @Test
+    public void lapsedHoldsStayLapsedUntilReleased() {
+        IpcScheduler ipc = new IpcScheduler(Runnable::run, scheduler, metrics, 4, 100);
+        ipc.setBackgroundHeld(true);
+        await(ipc.submit(IpcScheduler.Priority.BACKGROUND, "listTokens", "listTokens", () -> Tasks.forResult("tokens")));
+
+        // Another launch while the stale one is still registered keeps the plugin holding
+        ipc.setBackgroundHeld(true);
+        Task<String> next = ipc.submit(IpcScheduler.Priority.BACKGROUND, "getTokenStatus", "getTokenStatus", () -> Tasks.forResult("state"));
+
+        assertTrue(next.isComplete());
+    }
+
+    private static void await(Task<?> task) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (!task.isComplete()) {
+            if (System.nanoTime() > deadline) {
+                fail("Query did not run");
+            }
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.getcapacitor.community.googlepay;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Checks OpcCodec against java.util.Base64 and String.getBytes, which it replaces to copy the opc only once.
+ */
+public class OpcCodecTest {
+
+    private static final byte[] REPLACEMENT = { (byte) 0xEF, (byte) 0xBF, (byte) 0xBD };
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void decodesBase64LikeTheJdk() {
+        for (int length = 0; length < 300; length++) {
+            byte[] bytes = randomBytes(length);
+            String padded = Base64.getEncoder().encodeToString(bytes);
+            String unpadded = Base64.getEncoder().withoutPadding().encodeToString(bytes);
+
+            assertArrayEquals(Base64.getDecoder().decode(padded), OpcCodec.decode(padded, OpcCodec.BASE64));
+            assertArrayEquals(Base64.getDecoder().decode(unpadded), OpcCodec.decode(unpadded, OpcCodec.BASE64));
+        }
+    }
+
+    @Test
+    public void decodesUrlSafeBase64() {
+        for (int length = 0; length < 300; length++) {
+            String encoded = Base64.getUrlEncoder().encodeToString(randomBytes(length));
+
+            assertArrayEquals(Base64.getUrlDecoder().decode(encoded), OpcCodec.decode(encoded, OpcCodec.BASE64));
+        }
+    }
+
+    @Test
+    public void skipsWhitespaceInBase64() {
+        for (int length = 0; length < 300; length += 7) {
+            byte[] bytes = randomBytes(length);
+            String wrapped = Base64.getMimeEncoder(16, "\r\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(bytes);
+            String spaced = " \t" + wrapped.replace("\r\n", "\n ") + "\n";
+
+            assertArrayEquals(bytes, OpcCodec.decode(wrapped, OpcCodec.BASE64));
+            assertArrayEquals(bytes, OpcCodec.decode(spaced, OpcCodec.BASE64));
+        }
+    }
+
+    @Test
+    public void rejectsMalformedBase64() {
+        String[] malformed = { "Q", "QUJDR", "QQ===", "QQ=A", "=QUJD", "QU*D", "QUJD\u00e9", "QUJD=", "QUI==", "QQ= =", "QQ=", "=" };
+        for (String value : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> Base64.getDecoder().decode(value));
+            assertThrows(IllegalArgumentException.class, () -> OpcCodec.decode(value, OpcCodec.BASE64));
+        }
+    }
+
+    @Test
+    public void encodesUtf8LikeGetBytes() {
+        String[] values = {
+            "",
+            "opc",
+            "caf\u00e9 \u00df\u00f8",
+            "\u20ac \u4e2d\u6587 \uffff",
+            "\ud83d\ude00 emoji \ud800\udc00 \udbff\udfff",
+            "{\"fpanId\":\"1234\",\"networkToken\":\"\u0000\u007f\u0080\u07ff\u0800\"}",
+        };
+        for (String value : values) {
+            assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), OpcCodec.decode(value, OpcCodec.UTF8));
+            assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), OpcCodec.decode(value, null));
+        }
+    }
+
+    @Test
+    public void encodesLoneSurrogatesAsReplacementCharacter() {
+        // Android's getBytes writes U+FFFD here, a desktop JVM writes '?'
+        assertArrayEquals(REPLACEMENT, OpcCodec.decode("\ud800", OpcCodec.UTF8));
+        assertArrayEquals(REPLACEMENT, OpcCodec.decode("\udc00", OpcCodec.UTF8));
+        assertArrayEquals(concat(new byte[] { 'a' }, REPLACEMENT, new byte[] { 'b' }), OpcCodec.decode("a\ud800b", OpcCodec.UTF8));
+        assertArrayEquals(concat(REPLACEMENT, REPLACEMENT), OpcCodec.decode("\udc00\ud800", OpcCodec.UTF8));
+        assertArrayEquals(
+            concat(new byte[] { 'x' }, REPLACEMENT, "\ud83d\ude00".getBytes(StandardCharsets.UTF_8)),
+            OpcCodec.decode("x\ud83d\ud83d\ude00", OpcCodec.UTF8)
+        );
+    }
+
+    @Test
+    public void rejectsUnknownEncodings() {
+        assertThrows(IllegalArgumentException.class, () -> OpcCodec.decode("opc", "hex"));
+    }
+
+    @Test
+    public void wipeZeroesTheArray() {
+        byte[] opc = OpcCodec.decode("opc", OpcCodec.UTF8);
+
+        OpcCodec.wipe(opc);
+        OpcCodec.wipe(null);
+
+        assertArrayEquals(new byte[3], opc);
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int size = 0;
+        for (byte[] part : parts) {
+            size += part.length;
+        }
+        byte[] result = new byte[size];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}
@@ -8,6 +8,9 @@ export enum ErrorCodeReference {
   INVALID_TOKEN = -7,
   SELECT_TOKEN_ERROR = -8,
   SET_DEFAULT_PAYMENTS_ERROR = -9,
+  UNSUPPORTED_NETWORK_ERROR = -10,
+  PROVISION_BATCH_PENDING = -11,
+  CALL_CANCELED = -12,
 }
 
 export enum TokenStatusReference {
@@ -86,65 +89,903 @@ export interface GooglePayProvisionOptions {
    */
   opc: string;
 
+  /**
+   * How `opc` is encoded: `utf8` text (the default), or `base64` (standard or URL-safe alphabet) decoded to the raw bytes
+   *
+   * @since 6.1.0
+   */
+  opcEncoding?: 'utf8' | 'base64';
+
+  /**
+   * Sets the TSP that should be used for the tokenization attempt (see TokenServiceProvider).
+   *
+   * @since 1.0.0
+   */
+  tsp: string;
+
+  /**
+   * Sets the clientName that should be used for the tokenization attempt (see TokenServiceProvider).
+   *
+   * @since 1.0.0
+   */
+  clientName: string;
+
+  /**
+   * Sets the lastDigits that should be used for the tokenization attempt (see TokenServiceProvider).
+   *
+   * @since 1.0.0
+   */
+  lastDigits: string;
+
+  /**
+   * Sets the address that should be used for the tokenization attempt (see TokenServiceProvider).
+   *
+   * @since 1.0.0
+   */
+  address: GooglePayAddress;
+}
+
+export interface GooglePayBatchCard extends GooglePayProvisionOptions {
+  /**
+   * Caller-chosen reference of the card's opc, unique within the batch. Only the reference is persisted,
+   * resumeProvisionBatch takes the opc again by this reference.
+   *
+   * @since 6.1.0
+   */
+  opcRef: string;
+}
+
+export interface GooglePayProvisionBatchOptions {
+  /**
+   * Cards to provision one after the other
+   *
+   * @since 6.1.0
+   */
+  cards: GooglePayBatchCard[];
+}
+
+export interface GooglePayResumeProvisionBatchOptions {
+  /**
+   * Opaque payment cards by opcRef for the cards still pending. Not needed for cards whose opc this process still holds
+   *
+   * @since 6.1.0
+   */
+  opcs?: { [opcRef: string]: string };
+
+  /**
+   * How the `opcs` values are encoded, `utf8` by default
+   *
+   * @since 6.1.0
+   */
+  opcEncoding?: 'utf8' | 'base64';
+}
+
+export interface GooglePayBatchCardStatus {
+  /**
+   * Position of the card in the batch
+   *
+   * @since 6.1.0
+   */
+  index: number;
+
+  /**
+   * @since 6.1.0
+   */
+  opcRef: string;
+
+  /**
+   * @since 6.1.0
+   */
+  tsp: string;
+
+  /**
+   * @since 6.1.0
+   */
+  lastDigits: string;
+
+  /**
+   * `skipped` means isTokenized reported the card as already in the wallet
+   *
+   * @since 6.1.0
+   */
+  status: 'pending' | 'launched' | 'provisioned' | 'skipped' | 'canceled' | 'failed';
+
+  /**
+   * Issuer token ID of a provisioned card
+   *
+   * @since 6.1.0
+   */
+  tokenId?: string;
+
+  /**
+   * Why the card was canceled or failed
+   *
+   * @since 6.1.0
+   */
+  error?: GooglePayTokenError;
+}
+
+export interface GooglePayProvisionBatch {
+  /**
+   * @since 6.1.0
+   */
+  batchId: string;
+
+  /**
+   * False while cards are pending, e.g. after the user canceled one or after a process restart
+   *
+   * @since 6.1.0
+   */
+  complete: boolean;
+
+  /**
+   * @since 6.1.0
+   */
+  cards: GooglePayBatchCardStatus[];
+}
+
+export interface GooglePayProvisionBatchProgress {
+  /**
+   * @since 6.1.0
+   */
+  batchId: string;
+
+  /**
+   * Number of cards in the batch
+   *
+   * @since 6.1.0
+   */
+  total: number;
+
+  /**
+   * The card whose status changed
+   *
+   * @since 6.1.0
+   */
+  card: GooglePayBatchCardStatus;
+}
+
+export interface GooglePayIsTokenizedOptions {
   /**
    * Sets the TSP that should be used for the tokenization attempt (see TokenServiceProvider).
    *
-   * @since 1.0.0
+   * @since 1.0.0
+   */
+  tsp: string;
+
+  /**
+   * Sets the lastDigits that should be used for the tokenization attempt (see TokenServiceProvider).
+   *
+   * @since 1.0.0
+   */
+  lastDigits: string;
+
+  /**
+   * Skips the local index built from listTokens and asks Google Pay directly
+   *
+   * @since 6.1.0
+   */
+  bypassCache?: boolean;
+}
+
+export interface GooglePayIsTokenizedManyOptions {
+  /**
+   * Cards to check, answered from the local index when it is warm
+   *
+   * @since 6.1.0
+   */
+  cards: GooglePayIsTokenizedOptions[];
+
+  /**
+   * Skips the local index built from listTokens and asks Google Pay directly
+   *
+   * @since 6.1.0
+   */
+  bypassCache?: boolean;
+}
+
+export interface GooglePayIsTokenizedResult {
+  /**
+   * TSP the card was checked with
+   *
+   * @since 6.1.0
+   */
+  tsp: string;
+
+  /**
+   * Last digits the card was checked with
+   *
+   * @since 6.1.0
+   */
+  lastDigits: string;
+
+  /**
+   * Whether the card is tokenized, missing when the check failed
+   *
+   * @since 6.1.0
+   */
+  isTokenized?: boolean;
+
+  /**
+   * Set when the check of this card failed
+   *
+   * @since 6.1.0
+   */
+  error?: GooglePayTokenError;
+}
+
+export interface GooglePayTokenOptions {
+  /**
+   * Sets the TSP that should be used for the tokenization attempt (see TokenServiceProvider).
+   *
+   * @since 1.0.0
+   */
+  tsp: string;
+
+  /**
+   * token registered to the active wallet
+   *
+   * @since 1.0.0
+   */
+  tokenReferenceId: string;
+}
+
+export interface GooglePayTokenStatusOptions extends GooglePayTokenOptions {
+  /**
+   * Skips the in-memory token cache and asks Google Pay directly
+   *
+   * @since 6.1.0
+   */
+  bypassCache?: boolean;
+}
+
+export interface GooglePayTokenStatusesOptions {
+  /**
+   * Tokens to look up, resolved concurrently in a single call
+   *
+   * @since 6.1.0
+   */
+  tokens: GooglePayTokenOptions[];
+
+  /**
+   * Skips the in-memory token cache and asks Google Pay directly
+   *
+   * @since 6.1.0
+   */
+  bypassCache?: boolean;
+}
+
+export interface GooglePayTokenError {
+  /**
+   * Error message
+   *
+   * @since 6.1.0
+   */
+  message: string;
+
+  /**
+   * Error code (e.g. TAP_AND_PAY_TOKEN_NOT_FOUND)
+   *
+   * @since 6.1.0
+   */
+  code: string;
+}
+
+export interface GooglePayTokenStatus {
+  /**
+   * token registered to the active wallet
+   *
+   * @since 6.1.0
+   */
+  tokenReferenceId: string;
+
+  /**
+   * TSP the token was looked up with
+   *
+   * @since 6.1.0
+   */
+  tsp: string;
+
+  /**
+   * Token state, missing when the lookup failed
+   *
+   * @since 6.1.0
+   */
+  state?: TokenStatusReference;
+
+  /**
+   * Token state name, missing when the lookup failed
+   *
+   * @since 6.1.0
+   */
+  code?: string;
+
+  /**
+   * Set when the lookup of this token failed
+   *
+   * @since 6.1.0
+   */
+  error?: GooglePayTokenError;
+}
+
+export interface GooglePayListTokensOptions {
+  /**
+   * Returns issuer name, last digits, network, token service provider, state and default flag of each token instead of the bare token IDs
+   *
+   * @since 6.1.0
+   */
+  detailed?: boolean;
+
+  /**
+   * Skips the in-memory token cache and asks Google Pay directly
+   *
+   * @since 6.1.0
+   */
+  bypassCache?: boolean;
+
+  /**
+   * Returns at most this many tokens (capped at 500) with a nextCursor for the rest. Without pageSize, cursor
+   * or a filter every token is returned at once
+   *
+   * @since 6.1.0
+   */
+  pageSize?: number;
+
+  /**
+   * nextCursor of the previous page
+   *
+   * @since 6.1.0
+   */
+  cursor?: string;
+
+  /**
+   * Only returns tokens of this TSP (see TokenServiceProvider)
+   *
+   * @since 6.1.0
+   */
+  tsp?: string;
+
+  /**
+   * Only returns tokens in one of these states
+   *
+   * @since 6.1.0
+   */
+  states?: TokenStatusReference[];
+}
+
+export interface GooglePayCacheStats {
+  /**
+   * Lookups answered from the cache
+   *
+   * @since 6.1.0
+   */
+  hits: number;
+
+  /**
+   * Lookups that went to Google Pay
+   *
+   * @since 6.1.0
+   */
+  misses: number;
+
+  /**
+   * Cached token states
+   *
+   * @since 6.1.0
+   */
+  size: number;
+
+  /**
+   * Calls that joined an identical query already in flight instead of starting their own
+   *
+   * @since 6.1.0
+   */
+  coalesced: number;
+
+  /**
+   * Distinct queries currently in flight
+   *
+   * @since 6.1.0
+   */
+  inFlight: number;
+}
+
+export interface GooglePayTokenInfo {
+  /**
+   * token registered to the active wallet
+   *
+   * @since 6.1.0
+   */
+  tokenReferenceId: string;
+
+  /**
+   * Issuer display name
+   *
+   * @since 6.1.0
+   */
+  issuerName: string;
+
+  /**
+   * Last digits of the funding card
+   *
+   * @since 6.1.0
+   */
+  lastDigits: string;
+
+  /**
+   * Card network (TapAndPay.CARD_NETWORK_*)
+   *
+   * @since 6.1.0
+   */
+  network: number;
+
+  /**
+   * Token service provider (TapAndPay.TOKEN_PROVIDER_*)
+   *
+   * @since 6.1.0
+   */
+  tokenServiceProvider: number;
+
+  /**
+   * Token state
+   *
+   * @since 6.1.0
+   */
+  state: TokenStatusReference;
+
+  /**
+   * Token state name
+   *
+   * @since 6.1.0
+   */
+  code: string;
+
+  /**
+   * Whether the token is the default one in Google Pay
+   *
+   * @since 6.1.0
+   */
+  isDefault: boolean;
+}
+
+export interface GooglePayWalletSnapshotOptions {
+  /**
+   * Returns every token with its TokenInfo fields and state instead of the bare token IDs
+   *
+   * @since 6.1.0
+   */
+  includeTokenStatuses?: boolean;
+
+  /**
+   * Skips the in-memory token cache and asks Google Pay directly
+   *
+   * @since 6.1.0
+   */
+  bypassCache?: boolean;
+}
+
+export interface GooglePaySnapshotField<T> {
+  /**
+   * Query result, missing when the query failed
+   *
+   * @since 6.1.0
+   */
+  value?: T;
+
+  /**
+   * Set when this query failed
+   *
+   * @since 6.1.0
+   */
+  error?: GooglePayTokenError;
+}
+
+export interface GooglePayWalletSnapshot {
+  /**
+   * Environment (e.g. production or sandbox)
+   *
+   * @since 6.1.0
+   */
+  environment: GooglePaySnapshotField<'PROD' | 'SANDBOX' | 'DEV'>;
+
+  /**
+   * ID of the active wallet
+   *
+   * @since 6.1.0
+   */
+  walletId: GooglePaySnapshotField<string>;
+
+  /**
+   * Stable hardware ID of the device
+   *
+   * @since 6.1.0
+   */
+  hardwareId: GooglePaySnapshotField<string>;
+
+  /**
+   * Tokens registered to the active wallet
+   *
+   * @since 6.1.0
+   */
+  tokens: GooglePaySnapshotField<string[] | GooglePayTokenInfo[]>;
+
+  /**
+   * Whether Google Pay is the default NFC payment app
+   *
+   * @since 6.1.0
+   */
+  nfc: GooglePaySnapshotField<GooglePayNfcState>;
+}
+
+export interface GooglePayCachedWalletState {
+  /**
+   * Format version of the stored state
+   *
+   * @since 6.1.0
+   */
+  version: number;
+
+  /**
+   * When the state was last written (epoch ms)
+   *
+   * @since 6.1.0
+   */
+  savedAt: number;
+
+  /**
+   * Last known environment
+   *
+   * @since 6.1.0
+   */
+  environment?: 'PROD' | 'SANDBOX' | 'DEV' | null;
+
+  /**
+   * Wallet the state belongs to
+   *
+   * @since 6.1.0
+   */
+  walletId?: string | null;
+
+  /**
+   * Last known tokens of that wallet
+   *
+   * @since 6.1.0
    */
-  tsp: string;
+  tokens?: GooglePayTokenInfo[] | null;
+}
 
+export interface GooglePayWalletStateChange {
   /**
-   * Sets the clientName that should be used for the tokenization attempt (see TokenServiceProvider).
+   * Stored state before reconciling, null when nothing was stored for the active wallet
    *
-   * @since 1.0.0
+   * @since 6.1.0
    */
-  clientName: string;
+  previous: GooglePayCachedWalletState | null;
 
   /**
-   * Sets the lastDigits that should be used for the tokenization attempt (see TokenServiceProvider).
+   * Live state now stored
    *
-   * @since 1.0.0
+   * @since 6.1.0
    */
-  lastDigits: string;
+  current: GooglePayCachedWalletState;
 
   /**
-   * Sets the address that should be used for the tokenization attempt (see TokenServiceProvider).
+   * Fields that differ (environment, walletId, tokens)
    *
-   * @since 1.0.0
+   * @since 6.1.0
    */
-  address: GooglePayAddress;
+  changed: string[];
 }
 
-export interface GooglePayIsTokenizedOptions {
+export interface GooglePayTokenStateChange {
   /**
-   * Sets the TSP that should be used for the tokenization attempt (see TokenServiceProvider).
+   * token registered to the active wallet
    *
-   * @since 1.0.0
+   * @since 6.1.0
    */
-  tsp: string;
+  tokenReferenceId: string;
 
   /**
-   * Sets the lastDigits that should be used for the tokenization attempt (see TokenServiceProvider).
+   * State before the change
    *
-   * @since 1.0.0
+   * @since 6.1.0
    */
-  lastDigits: string;
+  oldState: TokenStatusReference;
+
+  /**
+   * State name before the change
+   *
+   * @since 6.1.0
+   */
+  oldCode: string;
+
+  /**
+   * State after the change
+   *
+   * @since 6.1.0
+   */
+  newState: TokenStatusReference;
+
+  /**
+   * State name after the change
+   *
+   * @since 6.1.0
+   */
+  newCode: string;
 }
 
-export interface GooglePayTokenOptions {
+export interface GooglePayDataChangedEvent {
   /**
-   * Sets the TSP that should be used for the tokenization attempt (see TokenServiceProvider).
+   * Always OK, kept for listeners written against 1.0.0
    *
    * @since 1.0.0
    */
+  value: 'OK';
+
+  /**
+   * Token IDs that appeared since the last event, empty when the token list could not be read
+   *
+   * @since 6.1.0
+   */
+  added: string[];
+
+  /**
+   * Token IDs that disappeared since the last event, empty when the token list could not be read
+   *
+   * @since 6.1.0
+   */
+  removed: string[];
+
+  /**
+   * Tokens whose state changed since the last event, empty when the token list could not be read
+   *
+   * @since 6.1.0
+   */
+  changed: GooglePayTokenStateChange[];
+
+  /**
+   * Why the token list could not be read, the changes are reported with the next event
+   *
+   * @since 6.1.0
+   */
+  error?: GooglePayTokenError;
+}
+
+export interface GooglePayTokenStatusWatchEvent extends GooglePayTokenStateChange {
+  /**
+   * Watch that observed the change
+   *
+   * @since 6.1.0
+   */
+  watchId: string;
+
+  /**
+   * TSP the token is watched with
+   *
+   * @since 6.1.0
+   */
   tsp: string;
 
   /**
-   * token registered to the active wallet
+   * True when the token left the pending states and the watch ended
    *
-   * @since 1.0.0
+   * @since 6.1.0
    */
-  tokenReferenceId: string;
+  done: boolean;
+}
+
+export interface GooglePayLatency {
+  /**
+   * Recorded samples
+   *
+   * @since 6.1.0
+   */
+  count: number;
+
+  /**
+   * Samples that ended in an error
+   *
+   * @since 6.1.0
+   */
+  errors: number;
+
+  /**
+   * Mean latency in milliseconds
+   *
+   * @since 6.1.0
+   */
+  meanMs: number;
+
+  /**
+   * Slowest sample in milliseconds
+   *
+   * @since 6.1.0
+   */
+  maxMs: number;
+
+  /**
+   * Median, upper bound of its power-of-two bucket
+   *
+   * @since 6.1.0
+   */
+  p50Ms: number;
+
+  /**
+   * 90th percentile, upper bound of its power-of-two bucket
+   *
+   * @since 6.1.0
+   */
+  p90Ms: number;
+
+  /**
+   * 99th percentile, upper bound of its power-of-two bucket
+   *
+   * @since 6.1.0
+   */
+  p99Ms: number;
+}
+
+export interface GooglePayMetrics {
+  /**
+   * Latencies by name: `<method>.dispatch` (bridge-in until the method handed its work off, errors are exceptions it threw),
+   * `<operation>.queued` (wait for a query slot until the Task starts), `<operation>.task` (TapAndPay Task duration,
+   * one sample per attempt) and `<method>.activity` (activity launch to result)
+   *
+   * @since 6.1.0
+   */
+  latencies: { [name: string]: GooglePayLatency };
+
+  /**
+   * Plain event counters, e.g. `<operation>.retry`, `<operation>.timeout`, `<operation>.rejectedOpen`, `breaker.opened` and `ipc.holdExpired`
+   *
+   * @since 6.1.0
+   */
+  counters: { [name: string]: number };
+
+  /**
+   * Token cache and coalescing counters
+   *
+   * @since 6.1.0
+   */
+  cache: { hits: number; misses: number; coalesced: number };
+
+  /**
+   * Activity flows waiting for a result
+   *
+   * @since 6.1.0
+   */
+  pendingActivities: number;
+
+  /**
+   * Circuit breaker of the TapAndPay queries. `availability` is the Play services ConnectionResult code
+   * checked when the breaker last opened
+   *
+   * @since 6.1.0
+   */
+  breaker: { state: 'CLOSED' | 'OPEN' | 'HALF_OPEN'; consecutiveFailures: number; opened: number; availability: number };
+
+  /**
+   * Query scheduler: slots in use, queued calls per priority class, whether background calls wait for an open
+   * Google Pay screen, and how many queued calls were promoted to interactive or canceled
+   *
+   * @since 6.1.0
+   */
+  scheduler: {
+    maxInFlight: number;
+    inFlight: number;
+    interactiveQueued: number;
+    backgroundQueued: number;
+    backgroundHeld: boolean;
+    promoted: number;
+    canceled: number;
+  };
+}
+
+export interface GooglePayNfcState {
+  /**
+   * Whether Google Pay is the default NFC payment app
+   *
+   * @since 6.1.0
+   */
+  isDefault: boolean;
+
+  /**
+   * Whether NFC is switched on
+   *
+   * @since 6.1.0
+   */
+  isNFCOn: boolean;
+}
+
+export interface GooglePayExportTraceOptions {
+  /**
+   * Empties the buffer after exporting it
+   *
+   * @default false
+   * @since 6.1.0
+   */
+  clear?: boolean;
+}
+
+export interface GooglePayTraceEvent {
+  /**
+   * Time of the event (epoch ms)
+   *
+   * @since 6.1.0
+   */
+  t: number;
+
+  /**
+   * Plugin method or TapAndPay operation
+   *
+   * @since 6.1.0
+   */
+  m: string;
+
+  /**
+   * `start`, `launch`, `launchFailed`, `result`, `orphanResult`, `rejected`, `task` or `callback`
+   *
+   * @since 6.1.0
+   */
+  ev: string;
+
+  /**
+   * Activity request code
+   *
+   * @since 6.1.0
+   */
+  rq?: number;
+
+  /**
+   * Activity result code
+   *
+   * @since 6.1.0
+   */
+  rs?: number;
+
+  /**
+   * Duration (ms) of the task, or since the activity launch
+   *
+   * @since 6.1.0
+   */
+  d?: number;
+
+  /**
+   * ErrorCodeReference code, or the ApiException status code of a failed task
+   *
+   * @since 6.1.0
+   */
+  e?: string;
+
+  /**
+   * Launch id correlating the launch and result of one activity flow
+   *
+   * @since 6.1.0
+   */
+  id?: number;
+}
+
+export interface GooglePayTrace {
+  /**
+   * Size of the ring buffer, `0` when tracing is disabled
+   *
+   * @since 6.1.0
+   */
+  capacity: number;
+
+  /**
+   * Events recorded since the last clear, older ones than `capacity` were overwritten
+   *
+   * @since 6.1.0
+   */
+  recorded: number;
+
+  /**
+   * Buffered events, oldest first
+   *
+   * @since 6.1.0
+   */
+  events: GooglePayTraceEvent[];
 }
 
 export interface GooglePayPlugin {
@@ -155,7 +996,45 @@ export interface GooglePayPlugin {
    *
    * @since 1.0.0
    */
-  addListener(eventName: 'registerDataChangedListener', listenerFunc: (response: any) => void): any;
+  addListener(eventName: 'registerDataChangedListener', listenerFunc: (response: GooglePayDataChangedEvent) => void): any;
+
+  /**
+   * Event called when the persisted wallet state differs from what Google Pay reports.
+   * @param eventName walletStateChanged.
+   * @param listenerFunc callback with the previous and current state.
+   *
+   * @since 6.1.0
+   */
+  addListener(eventName: 'walletStateChanged', listenerFunc: (change: GooglePayWalletStateChange) => void): any;
+
+  /**
+   * Event called when a token watched with watchTokenStatus changes state.
+   * @param eventName tokenStatusChanged.
+   * @param listenerFunc callback with the old and new state.
+   *
+   * @since 6.1.0
+   */
+  addListener(eventName: 'tokenStatusChanged', listenerFunc: (change: GooglePayTokenStatusWatchEvent) => void): any;
+
+  /**
+   * Event called when NFC is switched on or off, or Google Pay gains or loses the default payment app role.
+   * Starts after the first isGPayDefaultNFCApp or getWalletSnapshot call.
+   * @param eventName nfcStateChanged.
+   * @param listenerFunc callback with the new state.
+   *
+   * @since 6.1.0
+   */
+  addListener(eventName: 'nfcStateChanged', listenerFunc: (state: GooglePayNfcState) => void): any;
+
+  /**
+   * Event called when a card of a provisioning batch is launched, provisioned, skipped, canceled or failed.
+   * Results that arrive after a process restart are retained until a listener is added.
+   * @param eventName provisionBatchProgress.
+   * @param listenerFunc callback with the card's new status.
+   *
+   * @since 6.1.0
+   */
+  addListener(eventName: 'provisionBatchProgress', listenerFunc: (progress: GooglePayProvisionBatchProgress) => void): any;
 
   removeAllListeners(): void;
 
@@ -193,20 +1072,81 @@ export interface GooglePayPlugin {
 
   /**
    * returns the status of a token with a given token ID
-   * @param options {GooglePayTokenOptions} Token Options
+   * @param options {GooglePayTokenStatusOptions} Token Options
    * @return {Promise<any>}
    *
    * @since 1.0.0
    */
-  getTokenStatus(options: GooglePayTokenOptions): Promise<{ state: TokenStatusReference; code: string }>;
+  getTokenStatus(options: GooglePayTokenStatusOptions): Promise<{ state: TokenStatusReference; code: string }>;
+
+  /**
+   * Watches a pending token natively and emits tokenStatusChanged when its state changes.
+   * Polling backs off exponentially, pauses in the background and ends once the token is no longer pending.
+   * watchId is null when the token is not pending.
+   * @param options {GooglePayTokenOptions} Token Options
+   * @return {Promise<{ watchId: string | null; state: TokenStatusReference; code: string }>}
+   *
+   * @since 6.1.0
+   */
+  watchTokenStatus(
+    options: GooglePayTokenOptions,
+  ): Promise<{ watchId: string | null; state: TokenStatusReference; code: string }>;
+
+  /**
+   * Stops a watch started with watchTokenStatus
+   * @param options.watchId {string} Watch to stop
+   * @return {Promise<{ cleared: boolean }>}
+   *
+   * @since 6.1.0
+   */
+  clearTokenStatusWatch(options: { watchId: string }): Promise<{ cleared: boolean }>;
+
+  /**
+   * returns the statuses of several tokens in one call, a failed lookup is reported on its own entry
+   * @param options {GooglePayTokenStatusesOptions} Tokens to look up
+   * @return {Promise<{ statuses: GooglePayTokenStatus[] }>}
+   *
+   * @since 6.1.0
+   */
+  getTokenStatuses(options: GooglePayTokenStatusesOptions): Promise<{ statuses: GooglePayTokenStatus[] }>;
 
   /**
    * returns a list of tokens registered to the active wallet
-   * @return {Promise<{tokens: string[]}>}
+   * @param options {GooglePayListTokensOptions} List Options
+   * @return {Promise<{tokens: string[] | GooglePayTokenInfo[], nextCursor?: string | null, total?: number}>} nextCursor and total
+   * (matching tokens across all pages) are set when paging or filtering, nextCursor is null on the last page
    *
    * @since 1.0.0
    */
-  listTokens(): Promise<{ tokens: string[] }>;
+  listTokens(
+    options?: GooglePayListTokensOptions,
+  ): Promise<{ tokens: string[] | GooglePayTokenInfo[]; nextCursor?: string | null; total?: number }>;
+
+  /**
+   * returns environment, active wallet, hardware ID, tokens and NFC state in one call, each field reports its own failure
+   * @param options {GooglePayWalletSnapshotOptions} Snapshot Options
+   * @return {Promise<GooglePayWalletSnapshot>}
+   *
+   * @since 6.1.0
+   */
+  getWalletSnapshot(options?: GooglePayWalletSnapshotOptions): Promise<GooglePayWalletSnapshot>;
+
+  /**
+   * returns the wallet state persisted by the last session (null when nothing is stored or persistWalletState is off),
+   * then reconciles it with Google Pay in the background and emits walletStateChanged on differences
+   * @return {Promise<{ state: GooglePayCachedWalletState | null }>}
+   *
+   * @since 6.1.0
+   */
+  getCachedWalletState(): Promise<{ state: GooglePayCachedWalletState | null }>;
+
+  /**
+   * returns the hit/miss counters of the in-memory token cache and how many duplicate queries were coalesced
+   * @return {Promise<GooglePayCacheStats>}
+   *
+   * @since 6.1.0
+   */
+  getCacheStats(): Promise<GooglePayCacheStats>;
 
   /**
    *  Starts the push tokenization flow
@@ -218,6 +1158,15 @@ export interface GooglePayPlugin {
    */
   isTokenized(options: GooglePayIsTokenizedOptions): Promise<{ isTokenized: boolean }>;
 
+  /**
+   * Checks several cards at once, a failed check is reported on its own entry
+   * @param options {GooglePayIsTokenizedManyOptions} Cards to check
+   * @return {Promise<{ results: GooglePayIsTokenizedResult[] }>}
+   *
+   * @since 6.1.0
+   */
+  isTokenizedMany(options: GooglePayIsTokenizedManyOptions): Promise<{ results: GooglePayIsTokenizedResult[] }>;
+
   /**
    *  Starts the push tokenization flow
    * @param options.opc {string} Sets Opaque Payment Card binary data.
@@ -231,6 +1180,43 @@ export interface GooglePayPlugin {
    */
   pushProvision(options: GooglePayProvisionOptions): Promise<{ tokenId: string }>;
 
+  /**
+   *  Push provisions several cards one after the other from a queue that survives process death.
+   *  Cards already in the wallet are skipped. Resolves once every card settled, or earlier with `complete: false`
+   *  when the user cancels a card.
+   * @param options {GooglePayProvisionBatchOptions} Cards to provision
+   * @return {Promise<GooglePayProvisionBatch>}
+   *
+   * @since 6.1.0
+   */
+  pushProvisionBatch(options: GooglePayProvisionBatchOptions): Promise<GooglePayProvisionBatch>;
+
+  /**
+   *  Continues the pending batch, e.g. after a process restart. Resolves right away with `complete: false`
+   *  while a pending card has no opc.
+   * @param options {GooglePayResumeProvisionBatchOptions} Opaque payment cards of the pending cards
+   * @return {Promise<GooglePayProvisionBatch>}
+   *
+   * @since 6.1.0
+   */
+  resumeProvisionBatch(options?: GooglePayResumeProvisionBatchOptions): Promise<GooglePayProvisionBatch>;
+
+  /**
+   *  returns the persisted batch, and whether it is running in this process
+   * @return {Promise<{ batch: GooglePayProvisionBatch | null; running: boolean }>}
+   *
+   * @since 6.1.0
+   */
+  getPendingProvisionBatch(): Promise<{ batch: GooglePayProvisionBatch | null; running: boolean }>;
+
+  /**
+   *  Drops the pending batch, not allowed while one of its cards is on screen
+   * @return {Promise<{ cleared: boolean }>}
+   *
+   * @since 6.1.0
+   */
+  clearProvisionBatch(): Promise<{ cleared: boolean }>;
+
   /**
    *  Requests setting token as default in Google Pay
    * @param options {GooglePayTokenOptions} Token Options
@@ -259,12 +1245,12 @@ export interface GooglePayPlugin {
   requestDeleteToken(options: GooglePayTokenOptions): Promise<{ isSuccess: boolean }>;
 
   /**
-   *  Check if Google Pay is Default NFC payment App
-   * @return {Promise<{ isDefault: boolean, isNFCOn: boolean }>}
+   *  Check if Google Pay is Default NFC payment App, answered from memory after the first call
+   * @return {Promise<GooglePayNfcState>}
    *
    * @since 4.0.4
    */
-  isGPayDefaultNFCApp(): Promise<{ isDefault: boolean; isNFCOn: boolean }>;
+  isGPayDefaultNFCApp(): Promise<GooglePayNfcState>;
 
   /**
    *  Sets Google Pay as Default NFC payment App
@@ -275,10 +1261,35 @@ export interface GooglePayPlugin {
   setGPayAsDefaultNFCApp(): Promise<{ isDefault: boolean }>;
 
   /**
-   * returns the status of a token with a given token ID
-   * @return {Promise<any>}
+   * Starts delivering registerDataChangedListener events with the added, removed and changed tokens.
+   * Calling it again does not register another native listener.
+   * @return {Promise<{ value: 'OK' }>}
    *
    * @since 1.0.0
    */
-  registerDataChangedListener(): Promise<any>;
+  registerDataChangedListener(): Promise<{ value: 'OK' }>;
+
+  /**
+   * returns per-method latency histograms and counters collected since the last reset
+   * @return {Promise<GooglePayMetrics>}
+   *
+   * @since 6.1.0
+   */
+  getMetrics(): Promise<GooglePayMetrics>;
+
+  /**
+   * Clears the collected metrics
+   *
+   * @since 6.1.0
+   */
+  resetMetrics(): Promise<void>;
+
+  /**
+   * returns the in-memory trace of recent activity flows, TapAndPay tasks and rejections
+   * @param {GooglePayExportTraceOptions} options
+   * @return {Promise<GooglePayTrace>}
+   *
+   * @since 6.1.0
+   */
+  exportTrace(options?: GooglePayExportTraceOptions): Promise<GooglePayTrace>;
 }
@@ -23,18 +23,62 @@ export class GooglePayWeb extends WebPlugin implements GooglePayPlugin {
     throw this.unimplemented('Not implemented on web.');
   }
 
+  watchTokenStatus(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  clearTokenStatusWatch(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  getTokenStatuses(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
   listTokens(): Promise<any> {
     throw this.unimplemented('Not implemented on web.');
   }
 
+  getWalletSnapshot(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  getCachedWalletState(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  getCacheStats(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
   isTokenized(): Promise<any> {
     throw this.unimplemented('Not implemented on web.');
   }
 
+  isTokenizedMany(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
   pushProvision(): Promise<any> {
     throw this.unimplemented('Not implemented on web.');
   }
 
+  pushProvisionBatch(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  resumeProvisionBatch(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  getPendingProvisionBatch(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  clearProvisionBatch(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
   resumeTokenization(): Promise<any> {
     throw this.unimplemented('Not implemented on web.');
   }
@@ -58,4 +102,16 @@ export class GooglePayWeb extends WebPlugin implements GooglePayPlugin {
   registerDataChangedListener(): Promise<any> {
     throw this.unimplemented('Not implemented on web.');
   }
+
+  getMetrics(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  resetMetrics(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
+
+  exportTrace(): Promise<any> {
+    throw this.unimplemented('Not implemented on web.');
+  }
 }